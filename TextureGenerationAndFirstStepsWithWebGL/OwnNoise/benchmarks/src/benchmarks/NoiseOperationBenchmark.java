@@ -0,0 +1,65 @@
+package benchmarks;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntToDoubleFunction;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+public class NoiseOperationBenchmark {
+
+    //this class measures the functions used for every pixel when creating a texture, see NoiseBenchmark of OwnNoise
+    //the operations ending with ValuesAt calculate a whole row of NoiseBenchmark.ROW_LENGTH coordinates per operation
+    //run with -prof gc to also get the bytes allocated per operation
+    //the forks add the vector api, so Noise.getNoiseValuesAt(vector) can use VectorNoiseKernel
+
+    //the operation, one of NoiseBenchmark.OPERATIONS
+    @Param({"Noise.getNoiseValueAt(Point)", "Noise.getNoiseValueAt(x,y,z)", "Noise.getNoiseValuesAt",
+            "Noise.getNoiseValuesAt(vector)", "PointStorageManager.getImportantPointsForPoint", "SimplexNoise.getValueAt",
+            "SimplexNoise.getValuesAt", "ColorMapper.getRGBForNoiseValue", "ColorMapper.getPackedRGBForNoiseValue"})
+    public String operation;
+
+    //the parameters of the noise
+    @Param({"300", "3000"})
+    public int numberOfPoints;
+
+    //the maximum distance of the points used for a noise value, other values can be given with -p maxDistance=...
+    @Param({"2"})
+    public double maxDistance;
+
+    @Param({"1"})
+    public long seed;
+
+    //the measured operation and the counter used to choose its input
+    private IntToDoubleFunction function;
+    private int counter;
+
+    //this function creates the operation, the classes of the generator are in the default package,
+    //so NoiseBenchmark can only be found by its name
+    @Setup
+    public void setup() throws ReflectiveOperationException {
+        function = (IntToDoubleFunction) Class.forName("NoiseBenchmark")
+                .getMethod("createOperation", String.class, int.class, double.class, long.class)
+                .invoke(null, operation, numberOfPoints, maxDistance, seed);
+    }
+
+    @Benchmark
+    public double run() {
+        return function.applyAsDouble(counter++);
+    }
+}
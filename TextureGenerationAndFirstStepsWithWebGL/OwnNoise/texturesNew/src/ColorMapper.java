@@ -3,6 +3,30 @@ public class ColorMapper {
     //this class is used to get the color value from the noise value
     //the used gradient depends on the specified type
 
+    //the gradients of all types stored as color tables, indexed by the ordinal of the type
+    private ColorTable[] colorTables = new ColorTable[PlanetType.values().length];
+
+    //constructor, calculates the color tables for every type
+    public ColorMapper() {
+        for(PlanetType type : PlanetType.values()) {
+            colorTables[type.ordinal()] = new ColorTable(noiseValue -> {
+                Point rgb = getRGBForNoiseValue(noiseValue, type);
+                return ColorTable.pack((int)rgb.getX(), (int)rgb.getY(), (int)rgb.getZ());
+            });
+        }
+    }
+
+    //this function returns the packed color value corresponding to the noise value using the color table of the type
+    //it is used for every pixel, so it does not create any objects
+    public int getPackedRGBForNoiseValue(double noiseValue, PlanetType type) {
+        return colorTables[type.ordinal()].getColor(noiseValue);
+    }
+
+    //Getter function for the color table of a type
+    public ColorTable getColorTable(PlanetType type) {
+        return colorTables[type.ordinal()];
+    }
+
     //this function returns the color value corresponding to the noise value when using the gradient for the specified type
     public Point getRGBForNoiseValue(double noiseValue, PlanetType type) {
         switch(type){
@@ -1,7 +1,8 @@
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class ImageGenerator {
 
@@ -11,146 +12,465 @@ public class ImageGenerator {
     private int xPixel;
     private int yPixel;
 
-    //the size of the image space
-    private int imageSpaceRadius;
-
     //the radius of the sphere used to create images without distortion
     private int radius;
 
-    //the number of points with value used in the noise function
-    private int numberOfPoints;
     //the noise function
-    private Noise noise;
-    //the image
+    private NoiseSource noise;
+    //the image, only created when the whole image is kept in memory
     private BufferedImage image;
+    //direct access to the pixels of the image
+    private PixelRaster raster;
     //the color mapper used to get the color from the noise value
     private ColorMapper colorMapper;
+    //the edge length of the tiles used when rendering in parallel
+    private int tileSize = 64;
+    //the number of rows rendered at once and the number of these bands kept in memory when writing the image while it is created
+    private int bandHeight = 64;
+    private int numberOfBands = 3;
+    //the type of the texture, selects the colors used
+    private PlanetType planetType = PlanetType.STAR;
+    //the number of octaves added up to calculate the turbulence
+    private int turbulenceOctaves = 5;
+    //the number of samples per row compared to the number of pixels per row at the equator, 0 to sample every pixel
+    //see setLatitudeAdaptiveSampling
+    private double samplingQuality = 0;
+    //the minimum number of samples of a row when sampling depending on the latitude
+    private static final int MIN_ROW_SAMPLES = 16;
+    //increased whenever the way the textures are created changes, so textures cached before are not used anymore
+    private static final int TEXTURE_VERSION = 2;
 
-    //constructor
-    public ImageGenerator(int xPixel,int yPixel,int radius, int imageSpaceRadius, int numberOfPoints) {
+    //constructors, the seed is used to create the noise, the same seed always results in the same image
+    public ImageGenerator(int xPixel,int yPixel,int radius, int imageSpaceRadius, int numberOfPoints, long seed) {
+        this.xPixel = xPixel;
+        this.yPixel = yPixel;
+        this.radius = radius;
+        this.noise = new Noise(imageSpaceRadius, numberOfPoints, 2, seed);
+        this.colorMapper = new ColorMapper();
+    }
+
+    //the points with value of the noise are created on the threads of the pool, used for large numbers of points
+    public ImageGenerator(int xPixel,int yPixel,int radius, int imageSpaceRadius, int numberOfPoints, long seed, ForkJoinPool pool) {
+        this.xPixel = xPixel;
+        this.yPixel = yPixel;
+        this.radius = radius;
+        this.noise = new Noise(imageSpaceRadius, numberOfPoints, 2, seed, pool);
+        this.colorMapper = new ColorMapper();
+    }
+
+    //the noise is loaded from a file created by saveNoise(), so the points with value are not created again
+    public ImageGenerator(int xPixel,int yPixel,int radius, File noiseFile) {
+        this.xPixel = xPixel;
+        this.yPixel = yPixel;
+        this.radius = radius;
+        this.noise = new Noise(noiseFile);
+        this.colorMapper = new ColorMapper();
+    }
+
+    //uses any noise function, for example SimplexNoise
+    public ImageGenerator(int xPixel,int yPixel,int radius, NoiseSource noise) {
         this.xPixel = xPixel;
         this.yPixel = yPixel;
         this.radius = radius;
-        this.imageSpaceRadius = imageSpaceRadius;
-        this.numberOfPoints = numberOfPoints;
-        this.noise = new Noise(imageSpaceRadius, numberOfPoints, 2);
-        this.image = new BufferedImage(xPixel, yPixel, BufferedImage.TYPE_INT_RGB);
+        this.noise = noise;
         this.colorMapper = new ColorMapper();
     }
 
+    //uses a random seed
+    public ImageGenerator(int xPixel,int yPixel,int radius, int imageSpaceRadius, int numberOfPoints) {
+        this(xPixel, yPixel, radius, imageSpaceRadius, numberOfPoints, ThreadLocalRandom.current().nextLong());
+    }
+
+    //Getter for the seed of the noise, creating a generator with this seed again results in the same image
+    //only available if the noise with points is used
+    public long getSeed() {
+        return getPointNoise().getSeed();
+    }
+
+    //this function saves the noise to a file, it can be used for other images using the constructor above
+    //only available if the noise with points is used
+    public void saveNoise(File file) {
+        getPointNoise().save(file);
+    }
+
+    //Getter for the noise function
+    public NoiseSource getNoise() {
+        return noise;
+    }
+
+    //this function returns the noise function if it is the noise with points
+    private Noise getPointNoise() {
+        if(!(noise instanceof Noise)) {
+            throw new UnsupportedOperationException("the generator uses " + noise.getParameters() + " instead of the noise with points");
+        }
+        return (Noise) noise;
+    }
+
+    //Setter for the type of the texture
+    public void setPlanetType(PlanetType planetType) {
+        this.planetType = planetType;
+    }
+
+    //Setter for the number of octaves added up to calculate the turbulence
+    public void setTurbulenceOctaves(int turbulenceOctaves) {
+        this.turbulenceOctaves = turbulenceOctaves;
+    }
+
+    //Setter for the sampling depending on the latitude, used to create the image faster
+    //the circles of latitude get shorter towards the poles, but every row of the image has xPixel pixels,
+    //so the noise is only calculated for a number of points proportional to the length of the circle of the row
+    //and the pixels in between are interpolated, with quality 1 the points are as far apart as the pixels at the equator,
+    //which calculates about 2/pi of the noise values, smaller values are faster but less detailed
+    //0 calculates the noise value of every pixel, the quality has to be in [0;1]
+    public void setLatitudeAdaptiveSampling(double quality) {
+        //also rejects NaN, which would fail every comparison later
+        if(!(quality >= 0 && quality <= 1)) {
+            throw new IllegalArgumentException("the sampling quality has to be in [0;1], not " + quality);
+        }
+        this.samplingQuality = quality;
+    }
+
     //function used to fill and print the image
     public void generate() {
+        createImage();
         //fillImageBasic();
         fillImageTurbulence();
         printImage();
     }
 
+    //function used to fill the image on all cores and print it
+    //the result is the same as with generate()
+    public void generateParallel() {
+        generateParallel(ForkJoinPool.commonPool());
+    }
+
+    //function used to fill the image using the threads of a given pool and print it
+    public void generateParallel(ForkJoinPool pool) {
+        generateParallel(new File("image.png"), pool);
+    }
+
+    //function used to fill the image using the threads of a given pool and write it to the given file
+    //the image is also compressed on the threads of the pool
+    public void generateParallel(File file, ForkJoinPool pool) {
+        PngWriter.write(renderParallel(pool), xPixel, yPixel, file, pool);
+    }
+
+    //function used to fill the image using the threads of a given pool without printing it
+    //returns the colors of the pixels row by row
+    public int[] renderParallel(ForkJoinPool pool) {
+        createImage();
+        fillImageTurbulenceParallel(pool);
+        return raster.getPixels();
+    }
+
     //function used to fill and print the image using a given name
     public void generate(String name) {
+        createImage();
         fillImageBasic();
         //fillImageTurbulence();
         printImage(name);
     }
 
+    //function used to fill and print the image with a given name using a cache
+    //if an image with the same parameters was created before, it is taken from the cache instead of creating it again
+    public void generateCached(String name, TextureCache cache) {
+        generateCached(name, cache, ForkJoinPool.commonPool());
+    }
+
+    //function used to fill and print the image with a given name using a cache and the threads of a given pool
+    //the image is only created and compressed on the threads of the pool if it is not in the cache
+    public void generateCached(String name, TextureCache cache, ForkJoinPool pool) {
+        String key = TextureCache.createKey("ImageGenerator", TEXTURE_VERSION, xPixel, yPixel, radius,
+                noise.getParameters(), planetType, turbulenceOctaves, samplingQuality);
+        cache.get(key, file -> {
+            createImage();
+            fillImageTurbulenceParallel(pool);
+            PngWriter.write(raster.getPixels(), xPixel, yPixel, file, pool);
+        }, new File("image_" + name + ".png"));
+    }
+
+    //function used to create the image while writing it to a file with a given name
+    //the image is never kept in memory as a whole, so it can be larger than the available memory
+    //the rows are created in bands on the threads of the pool, while the finished bands are compressed and written
+    public void generateStreaming(String name, ForkJoinPool pool) {
+        try (StreamingImageOutput output = new StreamingImageOutput(new File("image_" + name + ".png"),
+                xPixel, yPixel, bandHeight, numberOfBands, pool)) {
+            for(int y = 0; y < yPixel; y += bandHeight) {
+                PixelRaster band = output.nextBand(y);
+                int yEnd = Math.min(y + bandHeight, yPixel);
+                pool.invoke(new TileRenderTask(0, y, xPixel, yEnd, tileSize,
+                        (x0, y0, x1, y1) -> fillRegionTurbulence(band, null, x0, y0, x1, y1)));
+                output.submitBand(band);
+            }
+        }
+    }
+
+    //function used to calculate the values of the image without mapping them to colors, using the threads of a given pool
+    //the values are stored in a scalar field in the given file with 16 or 32 bits per value, see ScalarField
+    //the field can be turned into images of any type using generateVariants, without calculating the noise again
+    public ScalarField renderField(File file, int bitsPerValue, ForkJoinPool pool) {
+        ScalarField field = ScalarField.create(file, xPixel, yPixel, bitsPerValue);
+        pool.invoke(new TileRenderTask(0, 0, xPixel, yPixel, tileSize,
+                (xStart, yStart, xEnd, yEnd) -> fillRegionTurbulence(null, field, xStart, yStart, xEnd, yEnd)));
+        field.flush();
+        return field;
+    }
+
+    //function used to create an image for every given type from a scalar field created by renderField
+    //the images are written to image_<name>_<type>.png, the field is only read once for all images
+    public void generateVariants(ScalarField field, String name, PlanetType[] types, ForkJoinPool pool) {
+        ColorTable[] tables = new ColorTable[types.length];
+        File[] files = new File[types.length];
+        for(int t = 0; t < types.length; t++) {
+            tables[t] = colorMapper.getColorTable(types[t]);
+            files[t] = new File("image_" + name + "_" + types[t] + ".png");
+        }
+        field.recolor(tables, files, pool);
+    }
+
+    //function used to create the six faces of a cube map using the threads of a given pool and write them to files
+    //the faces have faceSize x faceSize pixels and are written to image_<name>_<face>.png, see CubeMapFace
+    //the pixels of a cube map are spread much more evenly over the sphere than the pixels of the normal image,
+    //which has whole rows of pixels at the poles, so a face size of xPixel / 4 gives the same detail at the equator
+    //with fewer pixels in total
+    public void generateCubeMap(String name, int faceSize, ForkJoinPool pool) {
+        for(CubeMapFace face : CubeMapFace.values()) {
+            PngWriter.write(renderCubeMapFace(face, faceSize, pool), faceSize, faceSize,
+                    new File("image_" + name + "_" + face.getName() + ".png"), pool);
+        }
+    }
+
+    //function used to fill a face of a cube map using the threads of a given pool
+    //returns the colors of the pixels row by row
+    public int[] renderCubeMapFace(CubeMapFace face, int faceSize, ForkJoinPool pool) {
+        PixelRaster faceRaster = new PixelRaster(faceSize, faceSize);
+        pool.invoke(new TileRenderTask(0, 0, faceSize, faceSize, tileSize,
+                (xStart, yStart, xEnd, yEnd) -> fillFaceRegionTurbulence(face, faceSize, faceRaster, xStart, yStart, xEnd, yEnd)));
+        return faceRaster.getPixels();
+    }
+
+    //function used to create the image and the direct access to its pixels, if this was not done before
+    private void createImage() {
+        if(image == null) {
+            image = new BufferedImage(xPixel, yPixel, BufferedImage.TYPE_INT_RGB);
+            raster = new PixelRaster(image);
+        }
+    }
+
     //this function fills the image using the basic noise function
     private void fillImageBasic() {
-        //for every pixel
-        for(int x = 0; x < xPixel; x++) {
-            for(int y = 0; y < yPixel; y++) {
+        //for every pixel, row by row
+        for(int y = 0; y < yPixel; y++) {
+            for(int x = 0; x < xPixel; x++) {
                 //calculate image coordinates from pixel coordinates
                 double xCoord = (10.0 / (double)xPixel * (double)x) - 5.0;
                 double yCoord = (10.0 / (double)yPixel * (double)y) - 5.0;
                 double zCoord = 0;
                 //get noise value
-                double noiseValue = noise.getNoiseValueAt(new Point(xCoord,yCoord,zCoord));
+                double noiseValue = noise.getValueAt(xCoord,yCoord,zCoord);
                 //simple black and white gradient
-                Point rgb = (new Point(noiseValue * 255, noiseValue * 255, noiseValue * 255));
-                rgb.round();
+                int col = colorMapper.getPackedRGBForNoiseValue(noiseValue, PlanetType.BLACK_AND_WHITE);
                 //set color value for pixel
-                int col = ((int)rgb.getX() << 16) | ((int)rgb.getY() << 8) | (int)rgb.getZ();
-                image.setRGB(x, y, col);
+                raster.setPixel(x, y, col);
             }
         }
     }
 
     //this function is used to fill the image with noise and turbulence
     private void fillImageTurbulence() {
-        //for every pixel
-        for(int x = 0; x < xPixel; x++) {
-            for(int y = 0; y < yPixel; y++) {
-                //old version, square texture with distortion
-                /*double xCoord = (10.0 / (double)xPixel * (double)x) - 5.0;
-                double yCoord = (10.0 / (double)yPixel * (double)y) - 5.0;
-                double zCoord = 0;
-                double noiseValue = noise.getNoiseValueAt(new Point(xCoord,yCoord,zCoord));
-                double turbulenceValue = getTurbulenceValueAt(5, xCoord, yCoord, zCoord);*/
+        fillRegionTurbulence(raster, null, 0, 0, xPixel, yPixel);
+    }
 
-                //new version, spherical textures without distortion
-                //get point on sphere corresponding to pixel
-                Point circlePoint = getCirclePoint(x,y);
-                //get noise value
-                double noiseValue = noise.getNoiseValueAt(circlePoint);
-                //get turbulence value
-                double turbulenceValue = getTurbulenceValueAt(5, circlePoint.getX(), circlePoint.getY(), circlePoint.getZ());
+    //this function is used to fill the image with noise and turbulence by splitting it into tiles
+    //the tiles are rendered by the threads of the given pool
+    private void fillImageTurbulenceParallel(ForkJoinPool pool) {
+        pool.invoke(new TileRenderTask(0, 0, xPixel, yPixel, tileSize,
+                (xStart, yStart, xEnd, yEnd) -> fillRegionTurbulence(raster, null, xStart, yStart, xEnd, yEnd)));
+    }
 
-                //add basic noise and turbulence, use sine to bring value back to [0;1]
-                noiseValue = Math.sin(noiseValue + 3 * turbulenceValue);
-                noiseValue = (noiseValue + 1) / 2;
+    //this function is used to fill a part of the image with noise and turbulence, xEnd and yEnd are exclusive
+    //the noise values are calculated for a whole row of the part at once
+    //the colors are written into target, which holds either the whole image or the band of rows containing the part
+    //if field is not null, the values are written into the field instead of mapping them to colors
+    private void fillRegionTurbulence(PixelRaster target, ScalarField field, int xStart, int yStart, int xEnd, int yEnd) {
+        int count = xEnd - xStart;
+        //the arrays of the current row, one more point is needed when sampling depending on the latitude
+        RowBuffers buffers = RowBuffers.get(count + 1);
+        int[] colors = buffers.getColors();
+        //the points on the sphere corresponding to the pixels, shared with other textures of the same size
+        SphereSamplingGrid grid = SphereSamplingGrid.get(xPixel, yPixel, radius, 0, 0, 0);
+        //for every row
+        for(int y = yStart; y < yEnd; y++) {
+            //the values of the pixels of the row in [0;1]
+            double[] values;
+            int samples = getRowSamples(grid, y);
+            if(samples < xPixel) {
+                getSampledValuesAt(grid, y, samples, xStart, xEnd, buffers);
+                values = buffers.getSampledValues();
+            } else {
+                //old version, square texture with distortion
+                /*xCoords[x - xStart] = (10.0 / (double)xPixel * (double)x) - 5.0;
+                yCoords[x - xStart] = (10.0 / (double)yPixel * (double)y) - 5.0;
+                zCoords[x - xStart] = 0;*/
 
+                //new version, spherical textures without distortion
+                //get points on sphere corresponding to the pixels, see SphereSamplingGrid
+                grid.getRow(y, xStart, xEnd, buffers.getXCoords(), buffers.getYCoords(), buffers.getZCoords());
+                getTextureValuesAt(buffers, count);
+                values = buffers.getNoiseValues();
+            }
+            if(field != null) {
+                field.setRow(y, xStart, values, count);
+                continue;
+            }
+            for(int k = 0; k < count; k++) {
                 //simple black and white gradient
-                /*Point rgb = (new Point(noiseValue * 255, noiseValue * 255, noiseValue * 255));
+                /*Point rgb = (new Point(values[k] * 255, values[k] * 255, values[k] * 255));
                 rgb.round();*/
 
                 //use color mapper to get color value from noise value
-                Point rgb = colorMapper.getRGBForNoiseValue(noiseValue, PlanetType.STAR);
+                colors[k] = colorMapper.getPackedRGBForNoiseValue(values[k], planetType);
+            }
+            //copy the colors of the row into the image
+            target.setRow(y, xStart, colors, count);
+        }
+    }
+
+    //this function calculates the number of points the noise is calculated for in a row, see setLatitudeAdaptiveSampling
+    private int getRowSamples(SphereSamplingGrid grid, int y) {
+        if(samplingQuality <= 0) {
+            return xPixel;
+        }
+        //the length of the circle of latitude compared to the equator
+        double length = grid.getRowSin(y);
+        int samples = (int) Math.ceil(xPixel * length * samplingQuality);
+        return Math.min(xPixel, Math.max(MIN_ROW_SAMPLES, samples));
+    }
+
+    //this function calculates the values of the pixels from xStart to xEnd of row y by calculating the noise for samples points
+    //spread evenly around the circle of the row and interpolating between them, the values are written into the sampled values
+    //of the buffers, only the points next to the pixels of the part are calculated, the last point lies at 360 degrees,
+    //which is the same as the first one, so the row is continuous where its ends meet
+    private void getSampledValuesAt(SphereSamplingGrid grid, int y, int samples, int xStart, int xEnd, RowBuffers buffers) {
+        double[] xCoords = buffers.getXCoords();
+        double[] yCoords = buffers.getYCoords();
+        double[] zCoords = buffers.getZCoords();
+        double[] noiseValues = buffers.getNoiseValues();
+        double[] values = buffers.getSampledValues();
+        double samplesPerPixel = samples / (double)xPixel;
+        int first = (int) (xStart * samplesPerPixel);
+        int last = (int) ((xEnd - 1) * samplesPerPixel) + 1;
+        //the latitude terms are the same as for the pixels of the row
+        double sinY = grid.getRowSin(y);
+        double z = grid.getRowZ(y);
+        for(int k = first; k <= last; k++) {
+            double angleX = Math.toRadians(360 / (double)samples * k);
+            xCoords[k - first] = radius * Math.cos(angleX) * sinY;
+            yCoords[k - first] = radius * Math.sin(angleX) * sinY;
+            zCoords[k - first] = z;
+        }
+        getTextureValuesAt(buffers, last - first + 1);
+        for(int x = xStart; x < xEnd; x++) {
+            double position = x * samplesPerPixel - first;
+            int k = (int) position;
+            values[x - xStart] = noiseValues[k] + (position - k) * (noiseValues[k + 1] - noiseValues[k]);
+        }
+    }
 
-                int col = ((int)rgb.getX() << 16) | ((int)rgb.getY() << 8) | (int)rgb.getZ();
-                image.setRGB(x, y, col);
+    //this function is used to fill a part of a face of a cube map with noise and turbulence, xEnd and yEnd are exclusive
+    //every pixel is mapped to the point on the sphere in the direction of the pixel
+    private void fillFaceRegionTurbulence(CubeMapFace face, int faceSize, PixelRaster target, int xStart, int yStart, int xEnd, int yEnd) {
+        int count = xEnd - xStart;
+        RowBuffers buffers = RowBuffers.get(count);
+        double[] xCoords = buffers.getXCoords();
+        double[] yCoords = buffers.getYCoords();
+        double[] zCoords = buffers.getZCoords();
+        int[] colors = buffers.getColors();
+        for(int y = yStart; y < yEnd; y++) {
+            double t = CubeMapFace.getFaceCoordinate(y, faceSize);
+            for(int x = xStart; x < xEnd; x++) {
+                double s = CubeMapFace.getFaceCoordinate(x, faceSize);
+                double px = face.getX(s, t);
+                double py = face.getY(s, t);
+                double pz = face.getZ(s, t);
+                //move the point onto the sphere
+                double scale = radius / Math.sqrt(px * px + py * py + pz * pz);
+                xCoords[x - xStart] = px * scale;
+                yCoords[x - xStart] = py * scale;
+                zCoords[x - xStart] = pz * scale;
             }
+            getTurbulenceColorsAt(buffers, count);
+            target.setRow(y, xStart, colors, count);
         }
     }
 
-    //this function calculats and returns the turbulence value
-    private double getTurbulenceValueAt(int steps, double xCoord, double yCoord, double zCoord) {
-        double t = 0;
-        Point p = new Point(xCoord,yCoord,zCoord);
-        for(int i = 0; i<steps; i++) {
-            t += noise.getNoiseValueAt(p) / Math.pow(2, i);
-            p = p.getNextPoint();
+    //this function calculates the colors for the row of points on the sphere stored in the buffers using noise and turbulence
+    //the colors are written into the colors of the buffers
+    private void getTurbulenceColorsAt(RowBuffers buffers, int count) {
+        getTextureValuesAt(buffers, count);
+        double[] noiseValues = buffers.getNoiseValues();
+        int[] colors = buffers.getColors();
+        for(int k = 0; k < count; k++) {
+            //simple black and white gradient
+            /*Point rgb = (new Point(noiseValues[k] * 255, noiseValues[k] * 255, noiseValues[k] * 255));
+            rgb.round();*/
+
+            //use color mapper to get color value from noise value
+            colors[k] = colorMapper.getPackedRGBForNoiseValue(noiseValues[k], planetType);
+        }
+    }
+
+    //this function calculates the values in [0;1] mapped to the colors for the row of points on the sphere stored in the buffers
+    //using noise and turbulence, the values are written into the noise values of the buffers
+    private void getTextureValuesAt(RowBuffers buffers, int count) {
+        double[] noiseValues = buffers.getNoiseValues();
+        double[] turbulenceValues = buffers.getTurbulenceValues();
+        //get noise values
+        noise.getValuesAt(buffers.getXCoords(), buffers.getYCoords(), buffers.getZCoords(), noiseValues, count);
+        //get turbulence values
+        getTurbulenceValuesAt(turbulenceOctaves, buffers, turbulenceValues, count);
+
+        for(int k = 0; k < count; k++) {
+            //add basic noise and turbulence, use sine to bring value back to [0;1]
+            double noiseValue = Math.sin(noiseValues[k] + 3 * turbulenceValues[k]);
+            noiseValues[k] = (noiseValue + 1) / 2;
         }
-        return t/2;
     }
 
-    //this function calculates the point on sphere corresponding to the current pixel
-    private Point getCirclePoint(int i,int j) {
-        double angleX = 360 / (double)xPixel * i;
-        double angleY = 180 / (double)yPixel * j;
-        angleX = Math.toRadians(angleX);
-        angleY = Math.toRadians(angleY);
-        double px, py, pz;
-        px = (radius * Math.cos(angleX) * Math.sin(angleY));
-        py = (radius * Math.sin(angleX) * Math.sin(angleY));
-        pz = (radius * Math.cos(angleY));
-        return new Point(px, py, pz);
+    //this function calculates the turbulence values for the row of points stored in the buffers and writes them into results
+    //the points are not changed, the points of the octaves are stored in the octave arrays of the buffers
+    private void getTurbulenceValuesAt(int steps, RowBuffers buffers, double[] results, int count) {
+        double[] x = buffers.getOctaveX();
+        double[] y = buffers.getOctaveY();
+        double[] z = buffers.getOctaveZ();
+        double[] noiseValues = buffers.getOctaveValues();
+        System.arraycopy(buffers.getXCoords(), 0, x, 0, count);
+        System.arraycopy(buffers.getYCoords(), 0, y, 0, count);
+        System.arraycopy(buffers.getZCoords(), 0, z, 0, count);
+        Arrays.fill(results, 0, count, 0);
+        for(int i = 0; i<steps; i++) {
+            noise.getValuesAt(x, y, z, noiseValues, count);
+            for(int k = 0; k < count; k++) {
+                results[k] += noiseValues[k] / Math.pow(2, i);
+                //calculate the next point
+                x[k] = Point.getNextCoordinate(x[k]);
+                y[k] = Point.getNextCoordinate(y[k]);
+                z[k] = Point.getNextCoordinate(z[k]);
+            }
+        }
+        for(int k = 0; k < count; k++) {
+            results[k] = results[k] / 2;
+        }
     }
 
     //this function creates the image file
+    //the image is compressed on the threads of the common pool
     private void printImage() {
-        File f = new File("image.png");
-        try {
-            ImageIO.write(image, "PNG", f);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        PngWriter.write(raster.getPixels(), xPixel, yPixel, new File("image.png"), ForkJoinPool.commonPool());
     }
 
     //this function creates the image file with a given name
     private void printImage(String name) {
-        File f = new File("image_" + name + ".png");
-        try {
-            ImageIO.write(image, "PNG", f);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        PngWriter.write(raster.getPixels(), xPixel, yPixel, new File("image_" + name + ".png"), ForkJoinPool.commonPool());
     }
 }
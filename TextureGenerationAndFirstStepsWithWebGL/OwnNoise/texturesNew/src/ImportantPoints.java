@@ -0,0 +1,80 @@
+import java.util.Arrays;
+
+public class ImportantPoints {
+
+    //this class stores the important points of a storage cube, used by the noise to calculate a batch of noise values
+    //every thread gets its own instance, which is used for all batches the thread calculates,
+    //so calculating the noise values does not allocate memory
+
+    //the instance of every thread
+    private static final ThreadLocal<ImportantPoints> instances = ThreadLocal.withInitial(ImportantPoints::new);
+
+    //the coordinates and values of the points
+    private double[] x = new double[64];
+    private double[] y = new double[64];
+    private double[] z = new double[64];
+    private double[] values = new double[64];
+    //the squared distances between the current coordinate and the points, or their weighted values, see Noise.interpolate
+    private double[] squaredDistances = new double[64];
+    //the number of points
+    private int count;
+
+    //constructor, only used by instances
+    private ImportantPoints() {}
+
+    //this function returns the instance of the current thread, it must not be used by two calculations at the same time
+    public static ImportantPoints get() {
+        return instances.get();
+    }
+
+    //this function removes all points
+    public void clear() {
+        count = 0;
+    }
+
+    //this function makes room for the given number of additional points
+    public void ensureRoomFor(int additionalPoints) {
+        if(count + additionalPoints > x.length) {
+            int length = Math.max(x.length * 2, count + additionalPoints);
+            x = Arrays.copyOf(x, length);
+            y = Arrays.copyOf(y, length);
+            z = Arrays.copyOf(z, length);
+            values = Arrays.copyOf(values, length);
+            squaredDistances = new double[length];
+        }
+    }
+
+    //this function adds a point, ensureRoomFor has to be called first
+    public void add(double x, double y, double z, double value) {
+        this.x[count] = x;
+        this.y[count] = y;
+        this.z[count] = z;
+        this.values[count] = value;
+        count++;
+    }
+
+    //Getters, the arrays can be larger than the number of points
+    public int getCount() {
+        return count;
+    }
+
+    public double[] getX() {
+        return x;
+    }
+
+    public double[] getY() {
+        return y;
+    }
+
+    public double[] getZ() {
+        return z;
+    }
+
+    public double[] getValues() {
+        return values;
+    }
+
+    public double[] getSquaredDistances() {
+        return squaredDistances;
+    }
+}
@@ -5,9 +5,15 @@ public class Main {
 
     //this class is used to run the program and edit the settings
     public static void main(String[] args) {
+        //if a manifest is given, create all textures listed in it, see TextureFarm
+        if(args.length > 0) {
+            TextureFarm.main(args, TextureJob::parse);
+            return;
+        }
         System.out.println("Starting");
         ImageGenerator generator1 = new ImageGenerator(2*512,2*512,5,7,300);
-        generator1.generate();
+        //generator1.generate();
+        generator1.generateParallel();
 
 
         System.out.println("Finished");
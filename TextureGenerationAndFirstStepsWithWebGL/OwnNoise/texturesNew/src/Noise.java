@@ -1,117 +1,245 @@
-import java.util.ArrayList;
-import java.util.List;
+import java.io.File;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
 
-public class Noise {
+public class Noise implements NoiseSource {
     //this class represens the noise function
 
-    //old method of storing points with value
-    //now used to store important points for every calculation
-    private List<PointWithValue> points = new ArrayList<>();
-
     //the size of the image space
     private int boundary;
     //the number of points with value
     private int numberOfPoints;
     //the maximum distance after which value points are no longer used when calculating the noise value
     private double maxDistance;
+    //the squared maximum distance, used to sort out points without calculating the square root
+    private double maxDistanceSquared;
+
+    //whether the batch functions use VectorNoiseKernel, which needs the vector api, see VectorSupport
+    private boolean vectorKernel = VectorSupport.isEnabled();
 
-    //new method of storing points with value
+    //the points with value, stored in storage cubes
+    //the important points for a calculation are not stored here, so the noise can be used by multiple threads
     private PointStorageManager storageManager;
 
-    //constructor
-    public Noise(int boundary, int numberOfPoints, double maxDistance) {
+    //constructors, the same seed always results in the same noise
+    public Noise(int boundary, int numberOfPoints, double maxDistance, long seed) {
         this.boundary = boundary;
         this.numberOfPoints = numberOfPoints;
         this.maxDistance = maxDistance;
+        this.maxDistanceSquared = maxDistance * maxDistance;
         //creates storage manager
-        this.storageManager = new PointStorageManager(boundary, numberOfPoints, maxDistance);
+        this.storageManager = new PointStorageManager(boundary, numberOfPoints, maxDistance, seed);
         //creates the points with value and stores them in the storage cubes
         storageManager.setupPoints();
-        //old method of setting up points
-        //setupPoints();
     }
 
-    //this function was used with the old method to setup the points with value
-    private void setupPoints() {
-        for(int i = 0; i < numberOfPoints; i++) {
-            PointWithValue p = setupPoint();
-            while(pointExistsAlready(p)) {
-                p = setupPoint();
-            }
-            points.add(p);
+    //creates the points with value on the threads of the pool, used for large numbers of points
+    //see PointStorageManager.setupPointsParallel()
+    public Noise(int boundary, int numberOfPoints, double maxDistance, long seed, ForkJoinPool pool) {
+        this.boundary = boundary;
+        this.numberOfPoints = numberOfPoints;
+        this.maxDistance = maxDistance;
+        this.maxDistanceSquared = maxDistance * maxDistance;
+        this.storageManager = new PointStorageManager(boundary, numberOfPoints, maxDistance, seed);
+        storageManager.setupPointsParallel(pool);
+    }
 
-        }
+    //loads the points with value from a file created by save(), the file is mapped into memory and not copied
+    public Noise(File file) {
+        this.storageManager = PointStorageManager.load(file);
+        this.boundary = storageManager.getBoundary();
+        this.numberOfPoints = storageManager.getNumberOfPoints();
+        this.maxDistance = storageManager.getMaxDistance();
+        this.maxDistanceSquared = maxDistance * maxDistance;
     }
 
-    //creates and randomizes the values of a point with value
-    private PointWithValue setupPoint() {
-        PointWithValue p = new PointWithValue();
-        p.randomizeBetween(-boundary, boundary);
-        p.randomizeValue();
-        return p;
+    //uses a random seed
+    public Noise(int boundary, int numberOfPoints, double maxDistance) {
+        this(boundary, numberOfPoints, maxDistance, ThreadLocalRandom.current().nextLong());
     }
 
-    //test, whether a point already exists, done by checking whether the coordinates equal
-    private boolean pointExistsAlready(PointWithValue p) {
-        for(PointWithValue q : points) {
-            if(p.equals(q)) {
-                return true;
-            }
+    //Getter for the seed used to create the points with value
+    public long getSeed() {
+        return storageManager.getSeed();
+    }
+
+    //this function saves the points with value to a file, so the same noise can be loaded again
+    public void save(File file) {
+        storageManager.save(file);
+    }
+
+    //Setter for the use of VectorNoiseKernel by the batch functions, the noise values are the same either way
+    //by default it is only used if it is switched on by the system property of VectorSupport
+    public void setVectorKernel(boolean vectorKernel) {
+        if(vectorKernel) {
+            VectorSupport.checkAvailable();
         }
-        return false;
+        this.vectorKernel = vectorKernel;
+    }
+
+    public boolean isVectorKernel() {
+        return vectorKernel;
+    }
+
+    //Getter for the size of the image space, the number of points with value and the maximum distance
+    public int getBoundary() {
+        return boundary;
+    }
+
+    public int getNumberOfPoints() {
+        return numberOfPoints;
+    }
+
+    public double getMaxDistance() {
+        return maxDistance;
     }
 
     //this function calculates and returns the noise value at a given point
     public double getNoiseValueAt(Point p) {
-        //get needed points with value
-        findClosestPoints(p);
-        //calculate and return noise value
-        return interpolate(p);
+        return getNoiseValueAt(p.getX(), p.getY(), p.getZ());
     }
 
-    //this function is used to get the points with value needed to calculate the noise value
-    private void findClosestPoints(Point p) {
-        //old method, sort list of points by distance to pixel, too slow
-        //points.sort((p1, p2) -> {return (int)Math.signum(p1.getDistanceTo(p) - p2.getDistanceTo(p));});
+    //this function calculates and returns the noise value at the given coordinates
+    //it does not create any objects, so it can be called for every pixel without putting load on the garbage collector
+    public double getNoiseValueAt(double x, double y, double z) {
+        return interpolate(x, y, z);
+    }
+
+    //this function calculates the noise values for a batch of coordinates, for example a row of the image
+    //the results are written into results[0] to results[count-1]
+    //the values are the same as the ones returned by getNoiseValueAt
+    public void getNoiseValuesAt(double[] x, double[] y, double[] z, double[] results, int count) {
+        getNoiseValuesAt(x, y, z, results, null, count);
+    }
+
+    @Override
+    public double getValueAt(double x, double y, double z) {
+        return getNoiseValueAt(x, y, z);
+    }
+
+    @Override
+    public void getValuesAt(double[] x, double[] y, double[] z, double[] results, int count) {
+        getNoiseValuesAt(x, y, z, results, null, count);
+    }
+
+    //the parameters contain a hash of the points, because the same seed does not always result in the same points,
+    //see PointStorageManager.getContentHash
+    @Override
+    public String getParameters() {
+        return "Noise boundary=" + boundary + " numberOfPoints=" + numberOfPoints + " maxDistance=" + maxDistance
+                + " seed=" + getSeed() + " points=" + Long.toHexString(storageManager.getContentHash());
+    }
 
-        //new method, use storageManager to get list of all important points
-        points = storageManager.getImportantPointsForPoint(p);
+    //this function does the same as the function above, but writes the results into a float array
+    public void getNoiseValuesAt(double[] x, double[] y, double[] z, float[] results, int count) {
+        getNoiseValuesAt(x, y, z, null, results, count);
     }
 
-    //old method of calculating the noise, using just the 6 closest points
-    private double interpolate_old(Point p) {
+    //this function calculates the noise values for a batch of coordinates
+    //neighbouring coordinates are usually in the same storage cube, so the important points are only collected
+    //when the storage cube changes and then used for all following coordinates in the same cube
+    private void getNoiseValuesAt(double[] x, double[] y, double[] z, double[] results, float[] floatResults, int count) {
+        //the important points of the current storage cube, the arrays of the thread are used again for every batch
+        ImportantPoints important = ImportantPoints.get();
+        important.clear();
+        //the storage cube the important points were collected for
+        int currentX = -1;
+        int currentY = -1;
+        int currentZ = -1;
+        for(int k = 0; k < count; k++) {
+            int cubeX = storageManager.getCubeCoordinate(x[k]);
+            int cubeY = storageManager.getCubeCoordinate(y[k]);
+            int cubeZ = storageManager.getCubeCoordinate(z[k]);
+            //collect the important points again if the storage cube changed
+            if(cubeX != currentX || cubeY != currentY || cubeZ != currentZ) {
+                currentX = cubeX;
+                currentY = cubeY;
+                currentZ = cubeZ;
+                important.clear();
+                for(int xi = cubeX - 1; xi <= cubeX + 1; xi++) {
+                    for(int yi = cubeY - 1; yi <= cubeY + 1; yi++) {
+                        int start = storageManager.getImportantRangeStart(xi, yi, cubeZ);
+                        int end = storageManager.getImportantRangeEnd(xi, yi, cubeZ);
+                        important.ensureRoomFor(end - start);
+                        for(int i = start; i < end; i++) {
+                            important.add(storageManager.getX(i), storageManager.getY(i), storageManager.getZ(i), storageManager.getValue(i));
+                        }
+                    }
+                }
+            }
+            double value = interpolate(x[k], y[k], z[k], important.getX(), important.getY(), important.getZ(),
+                    important.getValues(), important.getCount(), important.getSquaredDistances());
+            if(results != null) {
+                results[k] = value;
+            } else {
+                floatResults[k] = (float) value;
+            }
+        }
+    }
+
+    //this function calculates the noise value, using all points closer than maxDistance
+    //the important points are read directly from the storage manager, the 3x3x3 storage cubes around
+    //the point are stored in 9 ranges of points
+    private double interpolate(double x, double y, double z) {
         double value = 0;
-        for(int i = 0; i < 6; i++) {
-            value += points.get(i).getValue() * weight(p.getDistanceTo(points.get(i)));
+        //calculate internal position of center storage cube
+        int cubeX = storageManager.getCubeCoordinate(x);
+        int cubeY = storageManager.getCubeCoordinate(y);
+        int cubeZ = storageManager.getCubeCoordinate(z);
+        for(int xi = cubeX - 1; xi <= cubeX + 1; xi++) {
+            for(int yi = cubeY - 1; yi <= cubeY + 1; yi++) {
+                int end = storageManager.getImportantRangeEnd(xi, yi, cubeZ);
+                //for every important point
+                for(int i = storageManager.getImportantRangeStart(xi, yi, cubeZ); i < end; i++) {
+                    double squaredDistance = Point.getSquaredDistanceBetween(x, y, z,
+                            storageManager.getX(i), storageManager.getY(i), storageManager.getZ(i));
+                    //close enough?
+                    if (squaredDistance < maxDistanceSquared) {
+                        //add value*weight to noise value, weight approaching 0 with distance approaching maxDistance
+                        double w = maxDistance - Math.sqrt(squaredDistance);
+                        value += storageManager.getValue(i) * (w * w);
+                    }
+                }
+            }
         }
-        //using sine to bring sum to [0;1]
-        value *= 2;
+        //use sine to bring value back to [0;1]
         value = (Math.sin(value) + 1) / 2;
         return value;
-
     }
 
-    //new method of calculating the noise, using all points closer than maxDistance
-    private double interpolate(Point p) {
+    //this function calculates the noise the same way as the function above, but uses
+    //the important points collected in the given arrays
+    //with the vector kernel the weighted values of all points are calculated at once and then added up in the same order
+    //as above, points that are too far away add 0, which does not change the sum, so the results are the same
+    //otherwise the squared distances are calculated for all points first, this simple loop over the coordinate arrays
+    //gets vectorized by the JIT compiler, afterwards the values are added in the same order as above
+    //scratch holds the weighted values or the squared distances
+    private double interpolate(double x, double y, double z, double[] importantX, double[] importantY,
+                               double[] importantZ, double[] importantValues, int importantCount, double[] scratch) {
+        if(vectorKernel) {
+            double value = VectorNoiseKernel.sumWeightedValues(x, y, z, importantX, importantY, importantZ, importantValues,
+                    importantCount, maxDistance, maxDistanceSquared, scratch);
+            //use sine to bring value back to [0;1]
+            return (Math.sin(value) + 1) / 2;
+        }
+        double[] squaredDistances = scratch;
+        for(int i = 0; i < importantCount; i++) {
+            double dx = importantX[i] - x;
+            double dy = importantY[i] - y;
+            double dz = importantZ[i] - z;
+            squaredDistances[i] = dx * dx + dy * dy + dz * dz;
+        }
         double value = 0;
-        int i = 0;
         //for every important point
-        for(PointWithValue pi : points) {
+        for(int i = 0; i < importantCount; i++) {
             //close enough?
-            if (p.getDistanceTo(pi) < maxDistance) {
-                //add value*weight to noise value, weight approaching 0 with distance approaching maxDistance
-                value += pi.getValue() * Math.pow((maxDistance - p.getDistanceTo(pi)), 2);
+            if (squaredDistances[i] < maxDistanceSquared) {
+                double w = maxDistance - Math.sqrt(squaredDistances[i]);
+                value += importantValues[i] * (w * w);
             }
         }
         //use sine to bring value back to [0;1]
         value = (Math.sin(value) + 1) / 2;
         return value;
-
-
-    }
-
-    //function used to calculate the weight corresponding to a point with value, used in the old method
-    private double weight(double distance) {
-        return Math.pow(1 / (distance +1), 4);
     }
 }
@@ -0,0 +1,122 @@
+import java.util.function.IntToDoubleFunction;
+
+public class NoiseBenchmark {
+
+    //this class creates the functions used for every pixel when creating a texture, so they can be measured
+    //the measuring is done by the JMH benchmarks in OwnNoise/benchmarks, which can not use the classes directly,
+    //because they are in the default package
+    //every operation gets a counter, so it can use different inputs every time, and returns a value,
+    //which is given to JMH, so the JIT compiler can not remove the operation
+    //the coordinates lie on a sphere like the pixels of a texture
+
+    //the names of the operations
+    public static final String[] OPERATIONS = {
+            "Noise.getNoiseValueAt(Point)",
+            "Noise.getNoiseValueAt(x,y,z)",
+            "Noise.getNoiseValuesAt",
+            "Noise.getNoiseValuesAt(vector)",
+            "PointStorageManager.getImportantPointsForPoint",
+            "SimplexNoise.getValueAt",
+            "SimplexNoise.getValuesAt",
+            "ColorMapper.getRGBForNoiseValue",
+            "ColorMapper.getPackedRGBForNoiseValue"
+    };
+
+    //the number of coordinates the operations cycle through
+    private static final int SAMPLES = 4096;
+    //the radius of the sphere
+    private static final double RADIUS = 5;
+    //the number of coordinates in a row, the operations working on rows calculate a whole row at once
+    public static final int ROW_LENGTH = 256;
+    //the size of the point grid
+    private static final int BOUNDARY = 7;
+
+    //this function creates the operation with the given name, see OPERATIONS
+    //numberOfPoints, maxDistance and seed are the parameters of the noise,
+    //they are not used by the simplex noise and the color mapper
+    public static IntToDoubleFunction createOperation(String operation, int numberOfPoints, double maxDistance, long seed) {
+        //coordinates on the sphere, 16 rows of 256 coordinates each like the pixels of a texture
+        double[] x = new double[SAMPLES];
+        double[] y = new double[SAMPLES];
+        double[] z = new double[SAMPLES];
+        double[][] xRows = new double[SAMPLES / ROW_LENGTH][ROW_LENGTH];
+        double[][] yRows = new double[SAMPLES / ROW_LENGTH][ROW_LENGTH];
+        double[][] zRows = new double[SAMPLES / ROW_LENGTH][ROW_LENGTH];
+        Point[] points = new Point[SAMPLES];
+        for(int i = 0; i < SAMPLES; i++) {
+            double angleX = Math.toRadians(360.0 / ROW_LENGTH * (i % ROW_LENGTH));
+            double angleY = Math.toRadians(180.0 / xRows.length * (i / ROW_LENGTH) + 5);
+            x[i] = RADIUS * Math.cos(angleX) * Math.sin(angleY);
+            y[i] = RADIUS * Math.sin(angleX) * Math.sin(angleY);
+            z[i] = RADIUS * Math.cos(angleY);
+            xRows[i / ROW_LENGTH][i % ROW_LENGTH] = x[i];
+            yRows[i / ROW_LENGTH][i % ROW_LENGTH] = y[i];
+            zRows[i / ROW_LENGTH][i % ROW_LENGTH] = z[i];
+            points[i] = new Point(x[i], y[i], z[i]);
+        }
+        double[] results = new double[ROW_LENGTH];
+        PlanetType[] types = PlanetType.values();
+
+        switch (operation) {
+            case "Noise.getNoiseValueAt(Point)" -> {
+                Noise noise = new Noise(BOUNDARY, numberOfPoints, maxDistance, seed);
+                return i -> noise.getNoiseValueAt(points[i & (SAMPLES - 1)]);
+            }
+            case "Noise.getNoiseValueAt(x,y,z)" -> {
+                Noise noise = new Noise(BOUNDARY, numberOfPoints, maxDistance, seed);
+                return i -> {
+                    int k = i & (SAMPLES - 1);
+                    return noise.getNoiseValueAt(x[k], y[k], z[k]);
+                };
+            }
+            case "Noise.getNoiseValuesAt" -> {
+                Noise noise = new Noise(BOUNDARY, numberOfPoints, maxDistance, seed);
+                return i -> {
+                    int row = i % xRows.length;
+                    noise.getNoiseValuesAt(xRows[row], yRows[row], zRows[row], results, ROW_LENGTH);
+                    return results[0];
+                };
+            }
+            //the same as above with VectorNoiseKernel, the vector api has to be available
+            case "Noise.getNoiseValuesAt(vector)" -> {
+                Noise noise = new Noise(BOUNDARY, numberOfPoints, maxDistance, seed);
+                noise.setVectorKernel(true);
+                return i -> {
+                    int row = i % xRows.length;
+                    noise.getNoiseValuesAt(xRows[row], yRows[row], zRows[row], results, ROW_LENGTH);
+                    return results[0];
+                };
+            }
+            case "PointStorageManager.getImportantPointsForPoint" -> {
+                PointStorageManager storageManager = new PointStorageManager(BOUNDARY, numberOfPoints, maxDistance, seed);
+                storageManager.setupPoints();
+                return i -> storageManager.getImportantPointsForPoint(points[i & (SAMPLES - 1)]).size();
+            }
+            case "SimplexNoise.getValueAt" -> {
+                SimplexNoise simplexNoise = new SimplexNoise(seed);
+                return i -> {
+                    int k = i & (SAMPLES - 1);
+                    return simplexNoise.getValueAt(x[k], y[k], z[k]);
+                };
+            }
+            case "SimplexNoise.getValuesAt" -> {
+                SimplexNoise simplexNoise = new SimplexNoise(seed);
+                return i -> {
+                    int row = i % xRows.length;
+                    simplexNoise.getValuesAt(xRows[row], yRows[row], zRows[row], results, ROW_LENGTH);
+                    return results[0];
+                };
+            }
+            //the color mapper cycles through all planet types
+            case "ColorMapper.getRGBForNoiseValue" -> {
+                ColorMapper colorMapper = new ColorMapper();
+                return i -> colorMapper.getRGBForNoiseValue((i & 1023) / 1023.0, types[(i >>> 10) % types.length]).getX();
+            }
+            case "ColorMapper.getPackedRGBForNoiseValue" -> {
+                ColorMapper colorMapper = new ColorMapper();
+                return i -> colorMapper.getPackedRGBForNoiseValue((i & 1023) / 1023.0, types[(i >>> 10) % types.length]);
+            }
+            default -> throw new IllegalArgumentException("unknown operation " + operation);
+        }
+    }
+}
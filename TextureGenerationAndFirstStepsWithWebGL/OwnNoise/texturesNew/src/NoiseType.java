@@ -0,0 +1,5 @@
+public enum NoiseType {
+    //used to define the noise function used to create a texture, POINTS is the noise with points (see Noise),
+    //SIMPLEX is the cheaper simplex noise (see SimplexNoise)
+    POINTS, SIMPLEX;
+}
@@ -46,10 +46,12 @@ public class Point {
 
     //this function calculates the point of the next step when calculating the turbulence value
     public Point getNextPoint() {
-            double newX = Math.pow(this.x, 2) / (Math.abs(this.x) + 1) ;
-            double newY = Math.pow(this.y, 2) / (Math.abs(this.y) + 1) ;
-            double newZ = Math.pow(this.z, 2) / (Math.abs(this.z) + 1) ;
-            return new Point(newX, newY, newZ);
+            return new Point(getNextCoordinate(this.x), getNextCoordinate(this.y), getNextCoordinate(this.z));
+    }
+
+    //this function calculates a single coordinate of the next step when calculating the turbulence value
+    public static double getNextCoordinate(double c) {
+            return Math.pow(c, 2) / (Math.abs(c) + 1) ;
     }
 
     //this function checks, whether the point equals another point
@@ -68,7 +70,21 @@ public class Point {
 
         //this function calculates the distance between the point and another point
         public double getDistanceTo(Point other) {
-            return Math.sqrt(Math.pow(other.x - this.x, 2) + Math.pow(other.y - this.y, 2) + Math.pow(other.z - this.z, 2));
+            return getDistanceBetween(this.x, this.y, this.z, other.x, other.y, other.z);
+        }
+
+        //this function calculates the distance between two points given by their coordinates
+        public static double getDistanceBetween(double x1, double y1, double z1, double x2, double y2, double z2) {
+            return Math.sqrt(getSquaredDistanceBetween(x1, y1, z1, x2, y2, z2));
+        }
+
+        //this function calculates the squared distance between two points given by their coordinates
+        //comparing squared distances avoids calculating the square root for points that are too far away
+        public static double getSquaredDistanceBetween(double x1, double y1, double z1, double x2, double y2, double z2) {
+            double dx = x2 - x1;
+            double dy = y2 - y1;
+            double dz = z2 - z1;
+            return dx * dx + dy * dy + dz * dz;
         }
 
         //a debug function that prints the points informations to the console
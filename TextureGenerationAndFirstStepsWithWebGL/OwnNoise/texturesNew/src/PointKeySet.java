@@ -0,0 +1,46 @@
+import java.util.Arrays;
+
+public class PointKeySet {
+
+    //this class is a set of non-negative long keys, used to find points with the same coordinates
+    //the keys are stored in an array using open addressing, so adding and finding a key takes constant time
+    //and no objects are created for the keys
+
+    //the stored keys plus one, 0 marks an empty slot
+    private long[] slots;
+    //used to select a slot from the hash of a key
+    private int mask;
+
+    //constructor, the set can hold up to expectedSize keys, it is at most half full
+    public PointKeySet(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(2, expectedSize) * 2 - 1) << 1;
+        this.slots = new long[capacity];
+        this.mask = capacity - 1;
+    }
+
+    //this function adds a key to the set
+    //it returns false if the key was already in the set
+    public boolean add(long key) {
+        long stored = key + 1;
+        int i = hash(key) & mask;
+        while (slots[i] != 0) {
+            if (slots[i] == stored) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        slots[i] = stored;
+        return true;
+    }
+
+    //this function removes all keys from the set
+    public void clear() {
+        Arrays.fill(slots, 0);
+    }
+
+    //this function mixes the bits of a key, so neighbouring keys end up in different slots
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+}
@@ -1,11 +1,41 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.ThreadLocalRandom;
 
 public class PointStorageManager {
 
     //this class manages the point storage
-    //it stores the storage cubes in a 3-dimensional array and provides utility functions
-    //to access storage cubes and setup the storage in the beginning
+    //it divides the image space into storage cubes and stores the points of all cubes in flat arrays
+    //the points of a cube are stored next to each other, cubeStart holds the index of the first point of every cube
+    //it also provides utility functions to access the points and setup the storage in the beginning
+    //the storage can be saved to a file and loaded again by mapping the file into memory, without creating the points again
+
+    //the step between two possible values of a point with value
+    public static final double VALUE_STEP = 0.25;
+    //the number of points created from one random generator when setting up the points in parallel
+    //this does not depend on the number of threads, so the result does not either
+    private static final int CHUNK_SIZE = 1 << 16;
+
+    //the file format used to save the storage, all numbers are little endian
+    //header: magic number, version, boundary, numberOfPoints, maxDistance, seed, cubeNumber, number of stored points,
+    //hash of the stored points, see getContentHash
+    //followed by cubeStart, padded to a multiple of 8 bytes, the x, y and z coordinates and the values
+    private static final int FILE_MAGIC = 0x4E535047;
+    private static final int FILE_VERSION = 2;
+    private static final int FILE_HEADER_SIZE = 48;
 
     //the size of the image space
     private int boundary;
@@ -14,76 +44,435 @@ public class PointStorageManager {
     //the distance after which points are no longer included when calculating the noise
     //also used as edge length for the storage cubes
     private double maxDistance;
+    //the seed of the random generator used to create the points
+    private long seed;
 
-    //3-dimensional list of Storage cubes
-    private List<List<List<StorageCube>>> storageCubes = new ArrayList<>();
+    //the number of storage cubes in each direction
+    private int cubeNumber;
+    //index of the first point of every cube, the points of cube c are stored from cubeStart[c] to cubeStart[c+1]
+    //the cubes are ordered by x, then y, then z, so the cubes (x, y, z-1) to (x, y, z+1) are stored next to each other
+    private int[] cubeStart;
+    //the coordinates of the points, ordered by cube
+    private double[] xCoordinates = new double[0];
+    private double[] yCoordinates = new double[0];
+    private double[] zCoordinates = new double[0];
+    //the values of the points as multiples of VALUE_STEP, ordered by cube
+    private byte[] values = new byte[0];
+    //a storage loaded from a file is not copied into the arrays above, the file is mapped into these buffers instead
+    //mapped tells which of both holds the points, the buffers are only set for loaded points
+    //the buffers are only read using absolute positions, so they can be used by multiple threads
+    private boolean mapped = false;
+    private IntBuffer mappedCubeStart;
+    private DoubleBuffer mappedXCoordinates;
+    private DoubleBuffer mappedYCoordinates;
+    private DoubleBuffer mappedZCoordinates;
+    private ByteBuffer mappedValues;
+    //the hash of the stored points, only valid if contentHashCalculated is true, see getContentHash
+    private long contentHash;
+    private boolean contentHashCalculated = false;
 
-    //constructor, sets the values for boundary, numberOfPoints and maxDistance
-    //creates the Storage cubes and fill the list of cubes
-    public PointStorageManager(int boundary, int numberOfPoints, double maxDistance) {
+    //constructors, set the values for boundary, numberOfPoints, maxDistance and seed
+    //create the empty storage cubes
+    public PointStorageManager(int boundary, int numberOfPoints, double maxDistance, long seed) {
         this.boundary = boundary;
         this.numberOfPoints = numberOfPoints;
         this.maxDistance = maxDistance;
+        this.seed = seed;
         setupStorageCubes();
     }
 
-    //this function is used to create the storage cubes and fill the list of cubes
+    //uses a random seed
+    public PointStorageManager(int boundary, int numberOfPoints, double maxDistance) {
+        this(boundary, numberOfPoints, maxDistance, ThreadLocalRandom.current().nextLong());
+    }
+
+    //this constructor is used when loading the storage from a file
+    private PointStorageManager() {
+    }
+
+    //this function is used to create the empty storage cubes
     private void setupStorageCubes() {
         //calculate number of cubes needed, boundary+1 in each direction from (0;0;0)
         //to avoid errors when trying to access neighbouring cubes
-        int cubeNumber =(int) ((boundary * 2) / maxDistance) + 1;
-        //create the cubes and "place" them in the cube list
-        for (int i = 0; i < cubeNumber; i++) {
-            List<List<StorageCube>> cubesY = new ArrayList<>();
-            for (int j = 0; j < cubeNumber; j++) {
-                List<StorageCube> cubesZ = new ArrayList<>();
-                for (int k = 0; k < cubeNumber; k++) {
-                    cubesZ.add(new StorageCube());
-                }
-                cubesY.add(cubesZ);
+        cubeNumber = (int) ((boundary * 2) / maxDistance) + 1;
+        cubeStart = new int[cubeNumber * cubeNumber * cubeNumber + 1];
+    }
+
+    //this function saves the storage to a file, which can be loaded again using load()
+    public void save(File file) {
+        int storedPoints = getNumberOfStoredPoints();
+        long cubeStartSize = 4L * ((long) cubeNumber * cubeNumber * cubeNumber + 1);
+        long coordinatesOffset = (FILE_HEADER_SIZE + cubeStartSize + 7) / 8 * 8;
+        long coordinatesSize = 8L * storedPoints;
+        long valuesOffset = coordinatesOffset + 3 * coordinatesSize;
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(FILE_MAGIC).putInt(FILE_VERSION).putInt(boundary).putInt(numberOfPoints)
+                    .putDouble(maxDistance).putLong(seed).putInt(cubeNumber).putInt(storedPoints)
+                    .putLong(getContentHash());
+            header.flip();
+            while(header.hasRemaining()) {
+                channel.write(header, header.position());
             }
-            storageCubes.add(cubesY);
+            MappedByteBuffer[] parts = {
+                    map(channel, FileChannel.MapMode.READ_WRITE, FILE_HEADER_SIZE, cubeStartSize),
+                    map(channel, FileChannel.MapMode.READ_WRITE, coordinatesOffset, coordinatesSize),
+                    map(channel, FileChannel.MapMode.READ_WRITE, coordinatesOffset + coordinatesSize, coordinatesSize),
+                    map(channel, FileChannel.MapMode.READ_WRITE, coordinatesOffset + 2 * coordinatesSize, coordinatesSize),
+                    map(channel, FileChannel.MapMode.READ_WRITE, valuesOffset, storedPoints)
+            };
+            if(mapped) {
+                parts[0].asIntBuffer().put(mappedCubeStart.duplicate().clear());
+                parts[1].asDoubleBuffer().put(mappedXCoordinates.duplicate().clear());
+                parts[2].asDoubleBuffer().put(mappedYCoordinates.duplicate().clear());
+                parts[3].asDoubleBuffer().put(mappedZCoordinates.duplicate().clear());
+                parts[4].put(mappedValues.duplicate().clear());
+            } else {
+                parts[0].asIntBuffer().put(cubeStart);
+                parts[1].asDoubleBuffer().put(xCoordinates);
+                parts[2].asDoubleBuffer().put(yCoordinates);
+                parts[3].asDoubleBuffer().put(zCoordinates);
+                parts[4].put(values);
+            }
+            //the mapped parts are only written to the file by the operating system at some point,
+            //so they are forced to the disk before returning, together with the header
+            for(MappedByteBuffer part : parts) {
+                part.force();
+            }
+            channel.force(true);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
         }
+    }
+
+    //this function loads the storage from a file created by save()
+    //the file is mapped into memory read only, the points are not copied, so this is done almost instantly
+    public static PointStorageManager load(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if(channel.size() < FILE_HEADER_SIZE) {
+                throw new IllegalArgumentException(file + " is not a point storage file");
+            }
+            ByteBuffer header = map(channel, FileChannel.MapMode.READ_ONLY, 0, FILE_HEADER_SIZE);
+            if(header.getInt() != FILE_MAGIC) {
+                throw new IllegalArgumentException(file + " is not a point storage file");
+            }
+            int version = header.getInt();
+            if(version != FILE_VERSION) {
+                throw new IllegalArgumentException(file + " was saved with version " + version + ", only version " + FILE_VERSION + " can be loaded");
+            }
+            PointStorageManager manager = new PointStorageManager();
+            manager.boundary = header.getInt();
+            manager.numberOfPoints = header.getInt();
+            manager.maxDistance = header.getDouble();
+            manager.seed = header.getLong();
+            manager.cubeNumber = header.getInt();
+            int storedPoints = header.getInt();
+            //the hash was calculated when saving, so the mapped points do not have to be read for it
+            manager.contentHash = header.getLong();
+            manager.contentHashCalculated = true;
+            long cubeStartSize = 4L * ((long) manager.cubeNumber * manager.cubeNumber * manager.cubeNumber + 1);
+            long coordinatesOffset = (FILE_HEADER_SIZE + cubeStartSize + 7) / 8 * 8;
+            long coordinatesSize = 8L * storedPoints;
+            long valuesOffset = coordinatesOffset + 3 * coordinatesSize;
+            if(channel.size() < valuesOffset + storedPoints) {
+                throw new IllegalArgumentException(file + " is incomplete");
+            }
+            //the file is mapped in parts, so every part can have up to 2 GB
+            //the mapping stays valid after the channel is closed
+            manager.mapped = true;
+            manager.mappedCubeStart = map(channel, FileChannel.MapMode.READ_ONLY, FILE_HEADER_SIZE, cubeStartSize).asIntBuffer();
+            manager.mappedXCoordinates = map(channel, FileChannel.MapMode.READ_ONLY, coordinatesOffset, coordinatesSize).asDoubleBuffer();
+            manager.mappedYCoordinates = map(channel, FileChannel.MapMode.READ_ONLY, coordinatesOffset + coordinatesSize, coordinatesSize).asDoubleBuffer();
+            manager.mappedZCoordinates = map(channel, FileChannel.MapMode.READ_ONLY, coordinatesOffset + 2 * coordinatesSize, coordinatesSize).asDoubleBuffer();
+            manager.mappedValues = map(channel, FileChannel.MapMode.READ_ONLY, valuesOffset, storedPoints);
+            return manager;
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    //this function maps a part of the file into memory using little endian byte order
+    private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long offset, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(mode, offset, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
 
+    //this function returns the position of the storage cube along one axis for a coordinate
+    public int getCubeCoordinate(double coordinate) {
+        return (int) ((coordinate + (double)boundary) / maxDistance);
     }
 
-    //this functions returns the storage cube that corresponds to the position of a point
-    private StorageCube getStorageCubeForPoint(PointWithValue p) {
-        int x = (int) ((p.getX() + (double)boundary) / maxDistance);
-        int y = (int) ((p.getY() + (double)boundary) / maxDistance);
-        int z = (int) ((p.getZ() + (double)boundary) / maxDistance);
-        return storageCubes.get(x).get(y).get(z);
+    //this function returns the index of the storage cube at the given position
+    public int getCubeIndex(int x, int y, int z) {
+        return (x * cubeNumber + y) * cubeNumber + z;
     }
 
     //this function is used to setup the points with value in the beginning
+    //the points are created using a random generator started with the seed, so the same seed always gives the same points
     public void setupPoints() {
+        //the coordinates are multiples of 0.1 within the image space, they are created as integers first
+        int range = (boundary * 2) * 10;
+        if((long) range * range * range < numberOfPoints) {
+            throw new IllegalArgumentException("there are only " + (long) range * range * range + " different points in the image space");
+        }
+        SplittableRandom random = new SplittableRandom(seed);
+        //the points that already exist, identified by their integer coordinates
+        PointKeySet existingPoints = new PointKeySet(numberOfPoints);
+
+        //the points are first collected in the order they are created
+        double[] x = new double[numberOfPoints];
+        double[] y = new double[numberOfPoints];
+        double[] z = new double[numberOfPoints];
+        byte[] v = new byte[numberOfPoints];
+        int[] cube = new int[numberOfPoints];
+
         //for every point needed
         for(int i = 0; i < numberOfPoints; i++) {
-            //create the point
-            PointWithValue p = setupPoint();
+            //create the point, if a point at these coordinates already exists, create another point
+            int xi, yi, zi;
+            do {
+                xi = random.nextInt(range);
+                yi = random.nextInt(range);
+                zi = random.nextInt(range);
+            } while(!existingPoints.add(((long) xi * range + yi) * range + zi));
+            x[i] = (xi / 10.0) - boundary;
+            y[i] = (yi / 10.0) - boundary;
+            z[i] = (zi / 10.0) - boundary;
+            //randomize the points value, one of the 5 values 0, 0.25, 0.5, 0.75 and 1
+            v[i] = (byte) random.nextInt(5);
             //get the corresponding storage cube
-            StorageCube cube = getStorageCubeForPoint(p);
-            //test whether a point at these coordinates already exists, if yes, create another point
-            while(cube.pointExistsAlready(p)) {
-                p = setupPoint();
-                cube = getStorageCubeForPoint(p);
+            cube[i] = getCubeIndex(getCubeCoordinate(x[i]), getCubeCoordinate(y[i]), getCubeCoordinate(z[i]));
+        }
+
+        //count the points of every cube and calculate where every cube starts
+        int[] start = new int[cubeStart.length];
+        for(int i = 0; i < numberOfPoints; i++) {
+            start[cube[i] + 1]++;
+        }
+        for(int c = 1; c < start.length; c++) {
+            start[c] += start[c - 1];
+        }
+
+        //copy the points into the storage arrays, keeping the order in which they were created within every cube
+        int[] position = Arrays.copyOf(start, start.length - 1);
+        double[] storedX = new double[numberOfPoints];
+        double[] storedY = new double[numberOfPoints];
+        double[] storedZ = new double[numberOfPoints];
+        byte[] storedValues = new byte[numberOfPoints];
+        for(int i = 0; i < numberOfPoints; i++) {
+            int target = position[cube[i]]++;
+            storedX[target] = x[i];
+            storedY[target] = y[i];
+            storedZ[target] = z[i];
+            storedValues[target] = v[i];
+        }
+        xCoordinates = storedX;
+        yCoordinates = storedY;
+        zCoordinates = storedZ;
+        values = storedValues;
+        cubeStart = start;
+        contentHashCalculated = false;
+    }
+
+    //this function is used to setup the points with value in the beginning on the threads of a pool, for large numbers of points
+    //the points are created in chunks, every chunk uses its own random generator split from a generator started with the seed
+    //afterwards they are sorted into the storage cubes and points with the same coordinates are removed,
+    //so there can be slightly fewer points than numberOfPoints
+    //the same seed always gives the same points, but not the same points as setupPoints()
+    //the storage is not changed after this, so it can be used by multiple threads
+    public void setupPointsParallel(ForkJoinPool pool) {
+        //the coordinates are multiples of 0.1 within the image space, they are created as integers first
+        int range = (boundary * 2) * 10;
+        if((long) range * range * range < numberOfPoints) {
+            throw new IllegalArgumentException("there are only " + (long) range * range * range + " different points in the image space");
+        }
+        int cubeCount = cubeStart.length - 1;
+        int chunks = (numberOfPoints + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        SplittableRandom random = new SplittableRandom(seed);
+        SplittableRandom[] chunkRandoms = new SplittableRandom[chunks];
+        for(int c = 0; c < chunks; c++) {
+            chunkRandoms[c] = random.split();
+        }
+
+        //create the points and count the points of every cube
+        int[] xi = new int[numberOfPoints];
+        int[] yi = new int[numberOfPoints];
+        int[] zi = new int[numberOfPoints];
+        byte[] v = new byte[numberOfPoints];
+        int[] cube = new int[numberOfPoints];
+        AtomicIntegerArray counts = new AtomicIntegerArray(cubeCount);
+        pool.invoke(new RangeTask(0, chunks, 1, (first, last) -> {
+            for(int c = first; c < last; c++) {
+                SplittableRandom chunkRandom = chunkRandoms[c];
+                for(int i = c * CHUNK_SIZE; i < Math.min((c + 1) * CHUNK_SIZE, numberOfPoints); i++) {
+                    xi[i] = chunkRandom.nextInt(range);
+                    yi[i] = chunkRandom.nextInt(range);
+                    zi[i] = chunkRandom.nextInt(range);
+                    v[i] = (byte) chunkRandom.nextInt(5);
+                    cube[i] = getCubeIndex(getCubeCoordinate((xi[i] / 10.0) - boundary),
+                            getCubeCoordinate((yi[i] / 10.0) - boundary), getCubeCoordinate((zi[i] / 10.0) - boundary));
+                    counts.incrementAndGet(cube[i]);
+                }
             }
-            //add the point to its storage cube
-            cube.add(p);
+        }));
 
+        //calculate where every cube starts and sort the indices of the points by cube
+        int[] start = new int[cubeCount + 1];
+        for(int c = 0; c < cubeCount; c++) {
+            start[c + 1] = start[c] + counts.get(c);
         }
+        AtomicIntegerArray position = new AtomicIntegerArray(Arrays.copyOf(start, cubeCount));
+        int[] order = new int[numberOfPoints];
+        pool.invoke(new RangeTask(0, numberOfPoints, CHUNK_SIZE, (first, last) -> {
+            for(int i = first; i < last; i++) {
+                order[position.getAndIncrement(cube[i])] = i;
+            }
+        }));
+
+        //within every cube, restore the order in which the points were created and remove points with the same coordinates
+        int[] kept = new int[cubeCount + 1];
+        pool.invoke(new RangeTask(0, cubeCount, 1024, (first, last) -> {
+            int largestCube = 0;
+            for(int c = first; c < last; c++) {
+                largestCube = Math.max(largestCube, start[c + 1] - start[c]);
+            }
+            PointKeySet existingPoints = new PointKeySet(largestCube);
+            for(int c = first; c < last; c++) {
+                Arrays.sort(order, start[c], start[c + 1]);
+                existingPoints.clear();
+                int k = start[c];
+                for(int j = start[c]; j < start[c + 1]; j++) {
+                    int i = order[j];
+                    if(existingPoints.add(((long) xi[i] * range + yi[i]) * range + zi[i])) {
+                        order[k++] = i;
+                    }
+                }
+                kept[c + 1] = k - start[c];
+            }
+        }));
+
+        //copy the remaining points into the storage arrays
+        for(int c = 0; c < cubeCount; c++) {
+            kept[c + 1] += kept[c];
+        }
+        int storedPoints = kept[cubeCount];
+        double[] x = new double[storedPoints];
+        double[] y = new double[storedPoints];
+        double[] z = new double[storedPoints];
+        byte[] storedValues = new byte[storedPoints];
+        pool.invoke(new RangeTask(0, cubeCount, 1024, (first, last) -> {
+            for(int c = first; c < last; c++) {
+                for(int k = kept[c]; k < kept[c + 1]; k++) {
+                    int i = order[start[c] + k - kept[c]];
+                    x[k] = (xi[i] / 10.0) - boundary;
+                    y[k] = (yi[i] / 10.0) - boundary;
+                    z[k] = (zi[i] / 10.0) - boundary;
+                    storedValues[k] = v[i];
+                }
+            }
+        }));
+        xCoordinates = x;
+        yCoordinates = y;
+        zCoordinates = z;
+        values = storedValues;
+        cubeStart = kept;
+        contentHashCalculated = false;
+    }
+
+    //this function returns a hash of all stored points and their values
+    //the points are not defined by the parameters alone, setupPoints and setupPointsParallel create different points
+    //for the same seed and a loaded file can contain any points, so caches have to use this hash to identify the points
+    //for generated points the hash is calculated once, when it is needed for the first time,
+    //for loaded points it is read from the file
+    public synchronized long getContentHash() {
+        if(!contentHashCalculated) {
+            //only generated points get here, so the arrays hold the points
+            //FNV-1a over 64 bit words
+            long hash = 0xCBF29CE484222325L;
+            for(int i = 0; i < cubeStart.length; i++) {
+                hash = (hash ^ cubeStart[i]) * 0x100000001B3L;
+            }
+            for(int i = 0; i < values.length; i++) {
+                hash = (hash ^ Double.doubleToLongBits(xCoordinates[i])) * 0x100000001B3L;
+                hash = (hash ^ Double.doubleToLongBits(yCoordinates[i])) * 0x100000001B3L;
+                hash = (hash ^ Double.doubleToLongBits(zCoordinates[i])) * 0x100000001B3L;
+                hash = (hash ^ values[i]) * 0x100000001B3L;
+            }
+            contentHash = hash;
+            contentHashCalculated = true;
+        }
+        return contentHash;
+    }
+
+    //this function returns the number of points stored
+    public int getNumberOfStoredPoints() {
+        return mapped ? mappedValues.capacity() : values.length;
+    }
+
+    //Getter functions for the parameters of the storage
+    public int getBoundary() {
+        return boundary;
+    }
+
+    public int getNumberOfPoints() {
+        return numberOfPoints;
+    }
+
+    public double getMaxDistance() {
+        return maxDistance;
+    }
+
+    //Getter functions for the stored points, i is the index of the point in the storage arrays
+    public double getX(int i) {
+        return mapped ? mappedXCoordinates.get(i) : xCoordinates[i];
+    }
+
+    public double getY(int i) {
+        return mapped ? mappedYCoordinates.get(i) : yCoordinates[i];
     }
 
-    //this function is used to create a random point with value
-    //it returns the created point
-    private PointWithValue setupPoint() {
-        //create point with value
-        PointWithValue p = new PointWithValue();
-        //randomize coordinates within image space
-        p.randomizeBetween(-boundary, boundary);
-        //randomize the points value
-        p.randomizeValue();
-        return p;
+    public double getZ(int i) {
+        return mapped ? mappedZCoordinates.get(i) : zCoordinates[i];
+    }
+
+    public double getValue(int i) {
+        return (mapped ? mappedValues.get(i) : values[i]) * VALUE_STEP;
+    }
+
+    //Getter for the seed used to create the points
+    public long getSeed() {
+        return seed;
+    }
+
+    //the important points for a point in the cube (x, y, z) are stored in 9 ranges, one for every column (xi, yi)
+    //with xi from x-1 to x+1 and yi from y-1 to y+1, every range holds the cubes z-1 to z+1 of the column
+    //the cubes of a column are only contiguous within the column, so cubes outside the storage are left out
+    //this function returns the index of the first point of the range for the column (xi, yi)
+    public int getImportantRangeStart(int xi, int yi, int z) {
+        if(isRangeOutside(xi, yi, z)) {
+            return 0;
+        }
+        return getFirstPointOfCube(getCubeIndex(xi, yi, Math.max(z - 1, 0)));
+    }
+
+    //this function returns the index after the last point of the range for the column (xi, yi)
+    public int getImportantRangeEnd(int xi, int yi, int z) {
+        if(isRangeOutside(xi, yi, z)) {
+            return 0;
+        }
+        return getFirstPointOfCube(getCubeIndex(xi, yi, Math.min(z + 1, cubeNumber - 1)) + 1);
+    }
+
+    //this function returns the index of the first point of the cube c
+    private int getFirstPointOfCube(int c) {
+        return mapped ? mappedCubeStart.get(c) : cubeStart[c];
+    }
+
+    //this function checks if the range for the column (xi, yi) around the cube z contains no cube of the storage
+    private boolean isRangeOutside(int xi, int yi, int z) {
+        return xi < 0 || xi >= cubeNumber || yi < 0 || yi >= cubeNumber || z + 1 < 0 || z - 1 >= cubeNumber;
     }
 
     //this function is used to get all points within the 3x3x3 cube of storage cubes
@@ -91,33 +480,19 @@ public class PointStorageManager {
     //it returns a list of these points
     //these are the only points that could influence the calculation of the noise value
     public List<PointWithValue> getImportantPointsForPoint(Point p) {
-        //get 3x3x3 cube of storage cubes
-        List<StorageCube> importantCubes = getImportantCubesForPoint(p);
-        List<PointWithValue> importantPoints = new ArrayList<>();
-        //merge points within these cubes into a single list
-        for(StorageCube cube : importantCubes) {
-            importantPoints.addAll(cube.getAllPoints());
-        }
-        return importantPoints;
-    }
-
-    //This function is used to get the 3x3x3 cube of storage cubes
-    // with the cube containing the pixel in the center
-    //it returns a list of these storage cubes
-    private List<StorageCube> getImportantCubesForPoint(Point p) {
         //calculate internal position of center storage cube
-        int x = (int) ((p.getX() + (double)boundary) / maxDistance);
-        int y = (int) ((p.getY() + (double)boundary) / maxDistance);
-        int z = (int) ((p.getZ() + (double)boundary) / maxDistance);
-        List<StorageCube> importantCubes = new ArrayList<>();
-        //select cubes around center cube and put them in a list
+        int x = getCubeCoordinate(p.getX());
+        int y = getCubeCoordinate(p.getY());
+        int z = getCubeCoordinate(p.getZ());
+        List<PointWithValue> importantPoints = new ArrayList<>();
         for(int xi = (x-1); xi <= x+1; xi++) {
             for(int yi = (y-1); yi <= y+1; yi++) {
-                for(int zi = (z-1); zi <= z+1; zi++) {
-                    importantCubes.add(storageCubes.get(xi).get(yi).get(zi));
+                int end = getImportantRangeEnd(xi, yi, z);
+                for(int i = getImportantRangeStart(xi, yi, z); i < end; i++) {
+                    importantPoints.add(new PointWithValue(getX(i), getY(i), getZ(i), getValue(i)));
                 }
             }
         }
-        return importantCubes;
+        return importantPoints;
     }
 }
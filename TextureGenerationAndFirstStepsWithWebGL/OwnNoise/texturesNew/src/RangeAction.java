@@ -0,0 +1,6 @@
+public interface RangeAction {
+    //this interface is used by the range task to process a part of a range of indices
+    //end is exclusive
+
+    void run(int start, int end);
+}
@@ -0,0 +1,38 @@
+import java.util.concurrent.RecursiveAction;
+
+public class RangeTask extends RecursiveAction {
+
+    //this class splits a range of indices into parts and processes them on a fork join pool
+
+    //the tasks are never serialized, the version is only set because RecursiveAction is serializable
+    private static final long serialVersionUID = 1L;
+
+    //the part of the range this task is responsible for, end is exclusive
+    private int start;
+    private int end;
+
+    //the maximum size of a part, larger parts get split further
+    private int partSize;
+
+    //the function used to process a single part
+    private RangeAction action;
+
+    //constructor
+    public RangeTask(int start, int end, int partSize, RangeAction action) {
+        this.start = start;
+        this.end = end;
+        this.partSize = partSize;
+        this.action = action;
+    }
+
+    //this function either processes the part or splits it in half
+    @Override
+    protected void compute() {
+        if (end - start <= partSize) {
+            action.run(start, end);
+            return;
+        }
+        int mid = start + (end - start) / 2;
+        invokeAll(new RangeTask(start, mid, partSize, action), new RangeTask(mid, end, partSize, action));
+    }
+}
@@ -0,0 +1,101 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+public class RenderBenchmark {
+
+    //this class measures the creation of whole textures using the image generator
+    //arguments of the form name=value, lists are separated by commas:
+    //resolution (width and height in pixels, default 512,1024,2048,4096), numberOfPoints (default 300,3000),
+    //octaves (default 5), threads (default 1 and all cores), seed (default 1), radius (default 5), imageSpaceRadius (default 7)
+    //quality (see ImageGenerator.setLatitudeAdaptiveSampling, default 0),
+    //golden (file with the checksums of the textures, default none), record (true to add missing checksums to the file)
+    //the checksums of the textures created with the default arguments and with resolution 8192 are stored in
+    //OwnNoise/texturesNew/golden-checksums.txt, a mismatch means that a change altered the textures
+    //8192 is not measured by default, its pixels alone need 256 MB and a single thread needs minutes for it
+    //every combination of resolution, numberOfPoints, octaves, quality and threads is measured
+    //for every texture it prints the time needed to setup the noise, to fill the image and to compress it,
+    //the pixels created per second, the highest memory usage and the checksum of the pixels
+    //if the checksum does not match the golden checksum, the program exits with an error
+    //the throughput is measured more exactly by the JMH benchmarks in OwnNoise/benchmarks, which use createRender
+
+    //this function creates a generator with the default radius and imageSpaceRadius and returns a function,
+    //which fills its image using the threads of the pool and returns the colors of the pixels
+    public static Supplier<int[]> createRender(int resolution, int numberOfPoints, int octaves, double quality, long seed, ForkJoinPool pool) {
+        ImageGenerator generator = new ImageGenerator(resolution, resolution, 5, 7, numberOfPoints, seed);
+        generator.setTurbulenceOctaves(octaves);
+        generator.setLatitudeAdaptiveSampling(quality);
+        return () -> generator.renderParallel(pool);
+    }
+
+    //this function runs all benchmarks and prints the results
+    public static void main(String[] args) throws IOException {
+        Map<String, String> arguments = Benchmark.parseArguments(args);
+        int[] resolutions = Benchmark.parseInts(arguments.getOrDefault("resolution", "512,1024,2048,4096"));
+        int[] pointCounts = Benchmark.parseInts(arguments.getOrDefault("numberOfPoints", "300,3000"));
+        int[] octaveCounts = Benchmark.parseInts(arguments.getOrDefault("octaves", "5"));
+        double[] qualities = Benchmark.parseDoubles(arguments.getOrDefault("quality", "0"));
+        int[] threadCounts = Benchmark.parseInts(arguments.getOrDefault("threads",
+                "1," + Runtime.getRuntime().availableProcessors()));
+        long seed = Long.parseLong(arguments.getOrDefault("seed", "1"));
+        int radius = Integer.parseInt(arguments.getOrDefault("radius", "5"));
+        int imageSpaceRadius = Integer.parseInt(arguments.getOrDefault("imageSpaceRadius", "7"));
+        boolean record = Boolean.parseBoolean(arguments.getOrDefault("record", "false"));
+        GoldenChecksums golden = arguments.containsKey("golden") ? new GoldenChecksums(new File(arguments.get("golden")), record) : null;
+
+        System.out.println("resolution,numberOfPoints,octaves,quality,threads,setupSeconds,renderSeconds,encodeSeconds,"
+                + "wallSeconds,megapixelsPerSecond,peakHeapMB,checksum,golden");
+        boolean mismatch = false;
+        for(int resolution : resolutions) {
+            for(int numberOfPoints : pointCounts) {
+                for(int octaves : octaveCounts) {
+                    for(double quality : qualities) {
+                        for(int threads : threadCounts) {
+                            ForkJoinPool pool = new ForkJoinPool(threads);
+                            Benchmark.resetPeakHeap();
+                            long start = System.nanoTime();
+                            ImageGenerator generator = new ImageGenerator(resolution, resolution, radius, imageSpaceRadius, numberOfPoints, seed);
+                            generator.setTurbulenceOctaves(octaves);
+                            generator.setLatitudeAdaptiveSampling(quality);
+                            long setupEnd = System.nanoTime();
+                            int[] pixels = generator.renderParallel(pool);
+                            long renderEnd = System.nanoTime();
+                            //the image is compressed without writing it to disk, so the disk does not change the result
+                            try (PngWriter writer = new PngWriter(OutputStream.nullOutputStream(), resolution, resolution)) {
+                                writer.writeRows(pixels, 0, resolution, pool);
+                            }
+                            long end = System.nanoTime();
+                            long peakHeap = Benchmark.getPeakHeapBytes();
+                            pool.shutdown();
+
+                            String checksum = Benchmark.checksum(pixels);
+                            String result = "-";
+                            if(golden != null) {
+                                result = golden.check("ImageGenerator " + resolution + "x" + resolution + " radius=" + radius
+                                        + " imageSpaceRadius=" + imageSpaceRadius + " numberOfPoints=" + numberOfPoints
+                                        + " octaves=" + octaves + " seed=" + seed + (quality > 0 ? " quality=" + quality : ""), checksum);
+                                mismatch |= result.equals("MISMATCH");
+                            }
+                            System.out.println(String.format(Locale.ROOT, "%d,%d,%d,%s,%d,%.3f,%.3f,%.3f,%.3f,%.2f,%.1f,%s,%s",
+                                    resolution, numberOfPoints, octaves, quality, threads, (setupEnd - start) / 1e9,
+                                    (renderEnd - setupEnd) / 1e9, (end - renderEnd) / 1e9, (end - start) / 1e9,
+                                    (double) resolution * resolution / ((end - start) / 1e9) / 1e6,
+                                    peakHeap / (1024.0 * 1024.0), checksum.substring(0, 16), result));
+                        }
+                    }
+                }
+            }
+        }
+        if(golden != null && record) {
+            golden.save();
+        }
+        if(mismatch) {
+            System.out.println("the textures do not match the golden checksums");
+            System.exit(1);
+        }
+    }
+}
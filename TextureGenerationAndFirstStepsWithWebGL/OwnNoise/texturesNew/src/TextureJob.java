@@ -0,0 +1,76 @@
+import java.io.File;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class TextureJob implements TextureFarmJob {
+
+    //this class describes a texture listed in the manifest of the texture farm
+    //a line of the manifest has the form
+    //name,width,height,radius,imageSpaceRadius,numberOfPoints,planetType[,seed[,noiseType]]
+    //if no seed is given, a random seed is used, if no noise type is given, the noise with points is used
+    //imageSpaceRadius and numberOfPoints are only used by the noise with points
+
+    //the name of the texture, also used as file name
+    private String name;
+    //the parameters of the image generator
+    private int width;
+    private int height;
+    private int radius;
+    private int imageSpaceRadius;
+    private int numberOfPoints;
+    private PlanetType planetType;
+    //the seed of the noise, null if a random seed should be used
+    private Long seed;
+    //the noise function used
+    private NoiseType noiseType;
+
+    //constructor
+    public TextureJob(String name, int width, int height, int radius, int imageSpaceRadius, int numberOfPoints,
+                      PlanetType planetType, Long seed, NoiseType noiseType) {
+        this.name = name;
+        this.width = width;
+        this.height = height;
+        this.radius = radius;
+        this.imageSpaceRadius = imageSpaceRadius;
+        this.numberOfPoints = numberOfPoints;
+        this.planetType = planetType;
+        this.seed = seed;
+        this.noiseType = noiseType;
+    }
+
+    //this function creates a texture job from a line of the manifest
+    public static TextureJob parse(String line) {
+        String[] fields = line.split(",", -1);
+        if(fields.length < 7 || fields.length > 9) {
+            throw new IllegalArgumentException("expected name,width,height,radius,imageSpaceRadius,numberOfPoints,planetType[,seed[,noiseType]]");
+        }
+        Long seed = fields.length >= 8 && !fields[7].isBlank() ? Long.parseLong(fields[7].trim()) : null;
+        NoiseType noiseType = fields.length == 9 && !fields[8].isBlank() ? NoiseType.valueOf(fields[8].trim()) : NoiseType.POINTS;
+        return new TextureJob(fields[0].trim(), Integer.parseInt(fields[1].trim()), Integer.parseInt(fields[2].trim()),
+                Integer.parseInt(fields[3].trim()), Integer.parseInt(fields[4].trim()), Integer.parseInt(fields[5].trim()),
+                PlanetType.valueOf(fields[6].trim()), seed, noiseType);
+    }
+
+    //Getter for the name and the number of pixels of the texture
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getPixels() {
+        return (long) width * height;
+    }
+
+    //this function creates the texture and writes it to file using the threads of the pool
+    @Override
+    public void render(File file, ForkJoinPool pool) {
+        long noiseSeed = seed == null ? ThreadLocalRandom.current().nextLong() : seed;
+        ImageGenerator generator = switch (noiseType) {
+            case POINTS -> new ImageGenerator(width, height, radius, imageSpaceRadius, numberOfPoints, noiseSeed);
+            case SIMPLEX -> new ImageGenerator(width, height, radius, new SimplexNoise(noiseSeed));
+        };
+        generator.setPlanetType(planetType);
+        generator.generateParallel(file, pool);
+    }
+}
@@ -0,0 +1,63 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorMask;
+import jdk.incubator.vector.VectorSpecies;
+
+public class VectorNoiseKernel {
+
+    //this class calculates the sum of the weighted values of the important points for the noise with the vector api
+    //it is only loaded if it is switched on and the vector api is available, see VectorSupport,
+    //Noise uses a scalar loop otherwise
+    //the distances, the square roots and the weights of as many points as fit into a vector are calculated at once,
+    //vectors without any point close enough are skipped
+    //the weighted values are then added in the order of the points, like the scalar version does,
+    //so both versions give exactly the same noise values
+    //the square root is calculated for every point of a vector, while the scalar version only calculates it for the
+    //points that are close enough, so depending on the processor this can be slower than the scalar version
+
+    //the number of doubles in a vector is chosen by the JVM for the processor
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+
+    //constructor, the class only has static functions
+    private VectorNoiseKernel() {}
+
+    //this function returns the sum of value * (maxDistance - distance)^2 of all important points,
+    //whose squared distance to (x, y, z) is smaller than maxDistanceSquared
+    //scratch needs room for importantCount values, it holds the weighted values of the points
+    public static double sumWeightedValues(double x, double y, double z, double[] importantX, double[] importantY,
+                                           double[] importantZ, double[] importantValues, int importantCount,
+                                           double maxDistance, double maxDistanceSquared, double[] scratch) {
+        double value = 0;
+        int i = 0;
+        for(; i < SPECIES.loopBound(importantCount); i += SPECIES.length()) {
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, importantX, i).sub(x);
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, importantY, i).sub(y);
+            DoubleVector dz = DoubleVector.fromArray(SPECIES, importantZ, i).sub(z);
+            DoubleVector squaredDistance = dx.mul(dx).add(dy.mul(dy)).add(dz.mul(dz));
+            VectorMask<Double> close = squaredDistance.lt(maxDistanceSquared);
+            if(!close.anyTrue()) {
+                continue;
+            }
+            DoubleVector w = squaredDistance.sqrt().neg().add(maxDistance);
+            DoubleVector weighted = DoubleVector.fromArray(SPECIES, importantValues, i).mul(w.mul(w));
+            DoubleVector.zero(SPECIES).blend(weighted, close).intoArray(scratch, i);
+            //the points that are too far away have the weighted value 0, adding it would not change the sum
+            for(int k = i; k < i + SPECIES.length(); k++) {
+                if(scratch[k] != 0) {
+                    value += scratch[k];
+                }
+            }
+        }
+        //the remaining points, fewer than fit into a vector
+        for(; i < importantCount; i++) {
+            double dx = importantX[i] - x;
+            double dy = importantY[i] - y;
+            double dz = importantZ[i] - z;
+            double squaredDistance = dx * dx + dy * dy + dz * dz;
+            if(squaredDistance < maxDistanceSquared) {
+                double w = maxDistance - Math.sqrt(squaredDistance);
+                value += importantValues[i] * (w * w);
+            }
+        }
+        return value;
+    }
+}
@@ -0,0 +1,142 @@
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ForkJoinPool;
+
+import com.sun.management.ThreadMXBean;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+public class AllocationTest {
+
+    //this class checks that calculating the noise and filling an image does not allocate memory for every pixel
+    //the bytes allocated by a thread are read from the ThreadMXBean of the JVM
+    //every measurement is done a few times first, so the buffers of the thread exist and the JIT compiler has run
+
+    //the size of the images and the number of noise values calculated
+    private static final int SIZE = 256;
+    private static final int SAMPLES = SIZE * SIZE;
+    //the highest number of bytes allowed per pixel, filling an image allocates a few objects for every tile
+    private static final double MAX_BYTES_PER_PIXEL = 1;
+    //the number of runs before measuring
+    private static final int WARMUP_RUNS = 3;
+
+    private static final ThreadMXBean threads = (ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    //the pool used to fill the images and the id of its only thread
+    private static ForkJoinPool pool;
+    private static long workerId;
+
+    @BeforeAll
+    public static void setup() {
+        pool = new ForkJoinPool(1);
+        workerId = pool.submit(() -> Thread.currentThread().getId()).join();
+    }
+
+    @AfterAll
+    public static void tearDown() {
+        pool.shutdown();
+    }
+
+    @Test
+    public void noiseValueDoesNotAllocate() {
+        Noise noise = new Noise(7, 300, 2, 1);
+        double[] x = new double[SIZE];
+        double[] y = new double[SIZE];
+        double[] z = new double[SIZE];
+        setupRow(x, y, z);
+        long allocated = 0;
+        for(int run = 0; run <= WARMUP_RUNS; run++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            double sum = 0;
+            for(int i = 0; i < SAMPLES; i++) {
+                sum += noise.getNoiseValueAt(x[i % SIZE], y[i % SIZE], z[i / SIZE % SIZE]);
+            }
+            allocated = threads.getCurrentThreadAllocatedBytes() - before;
+            assertTrue(sum > 0);
+        }
+        assertBytesPerPixel("Noise.getNoiseValueAt", allocated);
+    }
+
+    @Test
+    public void noiseValuesOfRowDoNotAllocate() {
+        Noise noise = new Noise(7, 300, 2, 1);
+        double[] x = new double[SIZE];
+        double[] y = new double[SIZE];
+        double[] z = new double[SIZE];
+        double[] results = new double[SIZE];
+        setupRow(x, y, z);
+        long allocated = 0;
+        for(int run = 0; run <= WARMUP_RUNS; run++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for(int row = 0; row < SIZE; row++) {
+                noise.getNoiseValuesAt(x, y, z, results, SIZE);
+            }
+            allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        }
+        assertBytesPerPixel("Noise.getNoiseValuesAt", allocated);
+    }
+
+    @Test
+    public void noiseValuesOfRowWithVectorKernelDoNotAllocate() {
+        assumeTrue(VectorSupport.isAvailable(), "the vector api is not available");
+        Noise noise = new Noise(7, 300, 2, 1);
+        noise.setVectorKernel(true);
+        double[] x = new double[SIZE];
+        double[] y = new double[SIZE];
+        double[] z = new double[SIZE];
+        double[] results = new double[SIZE];
+        setupRow(x, y, z);
+        long allocated = 0;
+        for(int run = 0; run <= WARMUP_RUNS; run++) {
+            long before = threads.getCurrentThreadAllocatedBytes();
+            for(int row = 0; row < SIZE; row++) {
+                noise.getNoiseValuesAt(x, y, z, results, SIZE);
+            }
+            allocated = threads.getCurrentThreadAllocatedBytes() - before;
+        }
+        assertBytesPerPixel("Noise.getNoiseValuesAt with VectorNoiseKernel", allocated);
+    }
+
+    @Test
+    public void renderingDoesNotAllocatePerPixel() {
+        assertRenderingDoesNotAllocate(0);
+    }
+
+    @Test
+    public void renderingWithLatitudeAdaptiveSamplingDoesNotAllocatePerPixel() {
+        assertRenderingDoesNotAllocate(1);
+    }
+
+    //this function fills an image with the given sampling quality and checks the bytes allocated by the thread of the pool
+    //the image is created by the first run and used again afterwards
+    private void assertRenderingDoesNotAllocate(double quality) {
+        ImageGenerator generator = new ImageGenerator(SIZE, SIZE, 5, 7, 300, 1);
+        generator.setLatitudeAdaptiveSampling(quality);
+        long allocated = 0;
+        for(int run = 0; run <= WARMUP_RUNS; run++) {
+            long before = threads.getThreadAllocatedBytes(workerId);
+            generator.renderParallel(pool);
+            allocated = threads.getThreadAllocatedBytes(workerId) - before;
+        }
+        assertBytesPerPixel("ImageGenerator.renderParallel with quality " + quality, allocated);
+    }
+
+    //this function fills the arrays with points on a circle of the sphere used by the generator
+    private void setupRow(double[] x, double[] y, double[] z) {
+        for(int i = 0; i < SIZE; i++) {
+            double angle = Math.toRadians(360.0 / SIZE * i);
+            x[i] = 5 * Math.cos(angle);
+            y[i] = 5 * Math.sin(angle);
+            z[i] = 5 * Math.cos(angle / 2);
+        }
+    }
+
+    private void assertBytesPerPixel(String name, long allocated) {
+        double bytesPerPixel = allocated / (double) SAMPLES;
+        assertTrue(bytesPerPixel < MAX_BYTES_PER_PIXEL,
+                name + " allocated " + bytesPerPixel + " bytes per pixel, at most " + MAX_BYTES_PER_PIXEL + " are allowed");
+    }
+}
@@ -0,0 +1,58 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+public class NoiseKernelTest {
+
+    //this class checks that the batch functions of the noise give exactly the same values as getNoiseValueAt,
+    //with the scalar loop and with VectorNoiseKernel
+    //the values are compared bit for bit, the textures must not depend on the kernel used
+    //the coordinates are random points in the image space, including points close to its boundary
+
+    //the number of coordinates compared
+    private static final int COUNT = 4096;
+
+    @Test
+    public void scalarBatchMatchesSingleValues() {
+        assertBatchMatchesSingleValues(false, 300);
+        assertBatchMatchesSingleValues(false, 3000);
+    }
+
+    @Test
+    public void vectorBatchMatchesSingleValues() {
+        assumeTrue(VectorSupport.isAvailable(), "the vector api is not available");
+        assertBatchMatchesSingleValues(true, 300);
+        assertBatchMatchesSingleValues(true, 3000);
+    }
+
+    //this function calculates the noise values with the batch function and compares them with getNoiseValueAt
+    private void assertBatchMatchesSingleValues(boolean vectorKernel, int numberOfPoints) {
+        Noise noise = new Noise(7, numberOfPoints, 2, 1);
+        noise.setVectorKernel(vectorKernel);
+        SplittableRandom random = new SplittableRandom(1);
+        double[] x = new double[COUNT];
+        double[] y = new double[COUNT];
+        double[] z = new double[COUNT];
+        //rows of neighbouring coordinates like the pixels of a texture, so the important points are used again
+        for(int i = 0; i < COUNT; i++) {
+            if(i % 64 == 0) {
+                x[i] = random.nextDouble(-6.9, 6.9);
+                y[i] = random.nextDouble(-6.9, 6.9);
+                z[i] = random.nextDouble(-6.9, 6.9);
+            } else {
+                x[i] = Math.min(6.9, x[i - 1] + random.nextDouble(0.05));
+                y[i] = y[i - 1];
+                z[i] = z[i - 1];
+            }
+        }
+        double[] results = new double[COUNT];
+        noise.getNoiseValuesAt(x, y, z, results, COUNT);
+        for(int i = 0; i < COUNT; i++) {
+            assertEquals(Double.doubleToLongBits(noise.getNoiseValueAt(x[i], y[i], z[i])), Double.doubleToLongBits(results[i]),
+                    "noise value " + i + " with vector kernel " + vectorKernel + " and " + numberOfPoints + " points");
+        }
+    }
+}
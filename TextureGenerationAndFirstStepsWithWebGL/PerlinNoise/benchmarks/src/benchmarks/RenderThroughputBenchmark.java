@@ -0,0 +1,71 @@
+package benchmarks;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RenderThroughputBenchmark {
+
+    //this class measures the time needed to fill a whole texture with perlin noise and turbulence using the file generator,
+    //see RenderBenchmark of PerlinNoise, only filling the image is measured
+    //run with -prof gc to also get the bytes allocated per texture
+
+    //the width and height of the texture in pixels
+    @Param({"512", "1024"})
+    public int resolution;
+
+    //the parameters of the generator, see FileGenerator
+    @Param({"5"})
+    public int octaves;
+
+    @Param({"0"})
+    public double quality;
+
+    //the number of threads used to fill the image, 0 for all cores
+    @Param({"1", "0"})
+    public int threads;
+
+    //the pool and the function filling the image
+    private ForkJoinPool pool;
+    private Supplier<int[]> render;
+
+    //this function creates the generator, the classes of the generator are in the default package,
+    //so RenderBenchmark can only be found by its name
+    @Setup
+    @SuppressWarnings("unchecked")
+    public void setup() throws ReflectiveOperationException {
+        pool = new ForkJoinPool(threads > 0 ? threads : Runtime.getRuntime().availableProcessors());
+        render = (Supplier<int[]>) Class.forName("RenderBenchmark")
+                .getMethod("createRender", int.class, int.class, double.class, int.class, ForkJoinPool.class)
+                .invoke(null, resolution, octaves, quality, 1, pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public int[] render() {
+        return render.get();
+    }
+}
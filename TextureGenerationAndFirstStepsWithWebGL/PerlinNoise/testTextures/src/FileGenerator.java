@@ -1,13 +1,13 @@
-import javax.imageio.ImageIO;
 import java.awt.image.BufferedImage;
 import java.io.File;
-import java.io.IOException;
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
 
 public class FileGenerator {
-    //this class creates and fills an image using perlin noise
+    //this class creates and fills an image using perlin noise or any other noise function
 
     //the noise
-    private PerlinNoise pNoise;
+    private NoiseSource noise;
 
     //the size of the image
     private int width;
@@ -18,41 +18,209 @@ public class FileGenerator {
     private double coordinateFrameY;
     private double coordinateFrameZ;
 
-    //the image
+    //the image, only created when the whole image is kept in memory
     private BufferedImage image;
+    //direct access to the pixels of the image
+    private PixelRaster raster;
+    //the edge length of the tiles used when rendering in parallel
+    private int tileSize = 64;
+    //the number of rows rendered at once and the number of these bands kept in memory when writing the image while it is created
+    private int bandHeight = 64;
+    private int numberOfBands = 3;
+    //the number of octaves added up to calculate the turbulence
+    private int turbulenceOctaves = 5;
+    //the number of samples per row compared to the number of pixels per row at the equator, 0 to sample every pixel
+    //see setLatitudeAdaptiveSampling
+    private double samplingQuality = 0;
+    //the minimum number of samples of a row when sampling depending on the latitude
+    private static final int MIN_ROW_SAMPLES = 16;
+    //increased whenever the way the textures are created changes, so textures cached before are not used anymore
+    private static final int TEXTURE_VERSION = 1;
+
+    //the gradient used to map the noise value to a color
+    private Gradient gradient = Gradient.ICE;
+    //the gradient stored as a color table
+    private ColorTable colorTable;
 
     //constructor
 
-    public FileGenerator(PerlinNoise p, int w, int h, double x, double y, double z) {
-        this.pNoise = p;
+    public FileGenerator(NoiseSource p, int w, int h, double x, double y, double z) {
+        this.noise = p;
         this.width = w;
         this.height = h;
         this.coordinateFrameX = x;
         this.coordinateFrameY = y;
         this.coordinateFrameZ = z;
-        this.image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+        this.colorTable = createColorTable(gradient);
+    }
+
+    //this function sets the gradient used to map the noise value to a color
+    public void setGradient(Gradient gradient) {
+        this.gradient = gradient;
+        this.colorTable = createColorTable(gradient);
+    }
+
+    //this function sets the number of octaves added up to calculate the turbulence
+    public void setTurbulenceOctaves(int turbulenceOctaves) {
+        this.turbulenceOctaves = turbulenceOctaves;
+    }
+
+    //this function sets the sampling depending on the latitude, used to create the textures faster
+    //the circles of latitude get shorter towards the poles, but every row of the image has width pixels,
+    //so the noise is only calculated for a number of points proportional to the length of the circle of the row
+    //and the pixels in between are interpolated, with quality 1 the points are as far apart as the pixels at the equator,
+    //which calculates about 2/pi of the noise values, smaller values are faster but less detailed
+    //0 calculates the noise value of every pixel, the quality has to be in [0;1]
+    public void setLatitudeAdaptiveSampling(double quality) {
+        //also rejects NaN, which would fail every comparison later
+        if(!(quality >= 0 && quality <= 1)) {
+            throw new IllegalArgumentException("the sampling quality has to be in [0;1], not " + quality);
+        }
+        this.samplingQuality = quality;
+    }
+
+    //this function calculates the color table for a gradient
+    private ColorTable createColorTable(Gradient g) {
+        return new ColorTable(pv -> {
+            UnitPoint rgb = getRGBFromPV(pv, g);
+            return ColorTable.pack(rgb.getX(), rgb.getY(), rgb.getZ());
+        });
     }
 
     //this function fills and prints the image with basic perlin noise
     public void generate() {
+        createImage();
         fillImage();
         printImage();
     }
 
     //this function fills and prints the image with perlin nosie and turbulence
     public void generateTurbulence(String id) {
+        createImage();
         fillImageTurbulence();
         printImage(id);
     }
 
+    //this function fills the image with perlin nosie and turbulence on all cores and prints it
+    //the result is the same as with generateTurbulence(id)
+    public void generateTurbulenceParallel(String id) {
+        generateTurbulenceParallel(id, ForkJoinPool.commonPool());
+    }
+
+    //this function fills the image with perlin nosie and turbulence using the threads of a given pool and prints it
+    public void generateTurbulenceParallel(String id, ForkJoinPool pool) {
+        System.out.println("saved image " + id);
+        generateTurbulenceParallel(new File("image_" + id + ".png"), pool);
+    }
+
+    //this function fills the image with perlin nosie and turbulence using the threads of a given pool
+    //and writes it to the given file, the image is also compressed on the threads of the pool
+    public void generateTurbulenceParallel(File file, ForkJoinPool pool) {
+        PngWriter.write(renderTurbulenceParallel(pool), width, height, file, pool);
+    }
+
+    //this function fills the image with perlin nosie and turbulence using the threads of a given pool without printing it
+    //returns the colors of the pixels row by row
+    public int[] renderTurbulenceParallel(ForkJoinPool pool) {
+        createImage();
+        fillImageTurbulenceParallel(pool);
+        return raster.getPixels();
+    }
+
+    //this function fills and prints the image with perlin nosie and turbulence using a cache
+    //if an image with the same parameters was created before, it is taken from the cache instead of creating it again
+    public void generateTurbulenceCached(String id, TextureCache cache) {
+        generateTurbulenceCached(id, cache, ForkJoinPool.commonPool());
+    }
+
+    //this function fills and prints the image with perlin nosie and turbulence using a cache and the threads of a given pool
+    //the image is only created and compressed on the threads of the pool if it is not in the cache
+    public void generateTurbulenceCached(String id, TextureCache cache, ForkJoinPool pool) {
+        String key = TextureCache.createKey("FileGenerator", TEXTURE_VERSION, width, height, coordinateFrameX,
+                coordinateFrameY, coordinateFrameZ, noise.getParameters(), gradient, turbulenceOctaves, samplingQuality);
+        cache.get(key, file -> {
+            createImage();
+            fillImageTurbulenceParallel(pool);
+            PngWriter.write(raster.getPixels(), width, height, file, pool);
+        }, new File("image_" + id + ".png"));
+        System.out.println("saved image " + id);
+    }
+
+    //this function creates the image with perlin nosie and turbulence while writing it to a file
+    //the image is never kept in memory as a whole, so it can be larger than the available memory
+    //the rows are created in bands on the threads of the pool, while the finished bands are compressed and written
+    public void generateTurbulenceStreaming(String id, ForkJoinPool pool) {
+        try (StreamingImageOutput output = new StreamingImageOutput(new File("image_" + id + ".png"),
+                width, height, bandHeight, numberOfBands, pool)) {
+            for(int j = 0; j < height; j += bandHeight) {
+                PixelRaster band = output.nextBand(j);
+                int jEnd = Math.min(j + bandHeight, height);
+                pool.invoke(new TileRenderTask(0, j, width, jEnd, tileSize,
+                        (i0, j0, i1, j1) -> fillRegionTurbulence(band, null, i0, j0, i1, j1)));
+                output.submitBand(band);
+            }
+        }
+        System.out.println("saved image " + id);
+    }
+
+    //this function calculates the perlin nosie and turbulence values of the image using the threads of a given pool
+    //without mapping them to colors, the values are stored in a scalar field in the given file with 16 or 32 bits per value,
+    //see ScalarField, the field can be turned into images with any gradient using generateVariants
+    public ScalarField renderTurbulenceField(File file, int bitsPerValue, ForkJoinPool pool) {
+        ScalarField field = ScalarField.create(file, width, height, bitsPerValue);
+        pool.invoke(new TileRenderTask(0, 0, width, height, tileSize,
+                (iStart, jStart, iEnd, jEnd) -> fillRegionTurbulence(null, field, iStart, jStart, iEnd, jEnd)));
+        field.flush();
+        return field;
+    }
+
+    //this function creates an image for every given gradient from a scalar field created by renderTurbulenceField
+    //the images are written to image_<id>_<gradient>.png, the field is only read once for all images
+    public void generateVariants(ScalarField field, String id, Gradient[] gradients, ForkJoinPool pool) {
+        ColorTable[] tables = new ColorTable[gradients.length];
+        File[] files = new File[gradients.length];
+        for(int g = 0; g < gradients.length; g++) {
+            tables[g] = createColorTable(gradients[g]);
+            files[g] = new File("image_" + id + "_" + gradients[g] + ".png");
+        }
+        field.recolor(tables, files, pool);
+        for(Gradient gradient : gradients) {
+            System.out.println("saved image " + id + "_" + gradient);
+        }
+    }
+
+    //this function creates the six faces of a cube map with perlin noise and turbulence using the threads of a given pool
+    //the faces have faceSize x faceSize pixels and are written to image_<id>_<face>.png, see CubeMapFace
+    //the pixels of a cube map are spread much more evenly over the sphere than the pixels of the normal image,
+    //which has whole rows of pixels at the poles, so a face size of width / 4 gives the same detail at the equator
+    //with fewer pixels in total
+    public void generateTurbulenceCubeMap(String id, int faceSize, ForkJoinPool pool) {
+        for(CubeMapFace face : CubeMapFace.values()) {
+            PngWriter.write(renderTurbulenceCubeMapFace(face, faceSize, pool), faceSize, faceSize,
+                    new File("image_" + id + "_" + face.getName() + ".png"), pool);
+        }
+        System.out.println("saved cube map " + id);
+    }
+
+    //this function fills a face of a cube map with perlin noise and turbulence using the threads of a given pool
+    //returns the colors of the pixels row by row
+    public int[] renderTurbulenceCubeMapFace(CubeMapFace face, int faceSize, ForkJoinPool pool) {
+        PixelRaster faceRaster = new PixelRaster(faceSize, faceSize);
+        pool.invoke(new TileRenderTask(0, 0, faceSize, faceSize, tileSize,
+                (iStart, jStart, iEnd, jEnd) -> fillFaceRegionTurbulence(face, faceSize, faceRaster, iStart, jStart, iEnd, jEnd)));
+        return faceRaster.getPixels();
+    }
+
     //this function fills and prints the image with perlin noise and octaves
     public void generateOctaves(int levels) {
+        createImage();
         fillImageOctaves(levels, 0);
         printImage();
     }
 
     //this function fills and prints the image with perlin noise and octaves
     public void generateOctaves2(int levels) {
+        createImage();
         fillImageOctaves2(levels, 0);
         printImage();
     }
@@ -60,6 +228,7 @@ public class FileGenerator {
     //this function fills and prints multiple images with perlin noise and octaves
     //"above" each other to create frames of an animation
     public void generateOctavesAnimation(int levels, int frames) {
+        createImage();
         for(int frame = 0; frame < frames; frame++) {
             fillImageOctaves(levels, getZFromF(frame, frames));
             printImage(String.valueOf(frame));
@@ -69,126 +238,264 @@ public class FileGenerator {
     //this function fills and prints an image using a 3-dimensional checkerboard to test
     //the method of removing distortion
     public void generateSphereTest() {
+        createImage();
         fillImageWithSphereTest();
         printImage();
     }
 
+    //this function creates the image and the direct access to its pixels, if this was not done before
+    private void createImage() {
+        if(image == null) {
+            image = new BufferedImage(width, height, BufferedImage.TYPE_INT_RGB);
+            raster = new PixelRaster(image);
+        }
+    }
+
     //this function creates the image file
+    //the image is compressed on the threads of the common pool
     private void printImage() {
-        File f = new File("image.png");
-        try {
-            ImageIO.write(image, "PNG", f);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        PngWriter.write(raster.getPixels(), width, height, new File("image.png"), ForkJoinPool.commonPool());
     }
 
     //this function creates an image file with a specified name
     private void printImage(String name) {
-        File f = new File("image_" + name +".png");
-        try {
-            System.out.println("saved image " + name);
-            ImageIO.write(image, "PNG", f);
-        } catch (IOException e) {
-            throw new RuntimeException(e);
-        }
+        System.out.println("saved image " + name);
+        PngWriter.write(raster.getPixels(), width, height, new File("image_" + name +".png"), ForkJoinPool.commonPool());
     }
 
     // this function fills the image with basic perlin noise by calculating the noise value for each pixel
     private void fillImage() {
-        //for every pixel
+        double[] xs = new double[width];
+        double[] ys = new double[width];
+        double[] zs = new double[width];
+        double[] perlinValues = new double[width];
+        int[] colors = new int[width];
         for(int i = 0; i<width; i++) {
-            double x = getXFromI(i);
-            for(int j = 0; j<height; j++) {
-                double y = getYFromJ(j);
-                //get perlin value at calculated coordinate
-                double perlinValue = pNoise.perlin(new Point(x, y, 0));
+            xs[i] = getXFromI(i);
+        }
+        //for every row
+        for(int j = 0; j<height; j++) {
+            Arrays.fill(ys, getYFromJ(j));
+            //get perlin values of the row
+            noise.getValuesAt(xs, ys, zs, perlinValues, width);
+            for(int i = 0; i<width; i++) {
                 //get color value corresponding to noise value
-                UnitPoint rgb = getRGBFromPV(perlinValue);
-                //create and set thee color variable at the current pixel
-                int col = (rgb.getX() << 16) | (rgb.getY() << 8) | rgb.getZ();
-                image.setRGB(i, j, col);
+                colors[i] = colorTable.getColor(perlinValues[i]);
             }
+            //copy the colors of the row into the image
+            raster.setRow(j, 0, colors, width);
         }
     }
 
     //this function fills the image with perlin noise and octaves
     private void fillImageOctaves(int levels, double frame) {
-        //for every pixel
-        for(int i = 0; i<width; i++) {
-            for(int j = 0; j<height; j++) {
-                double perlinValue = 0;
-                //add Octaves at different levels
-                for(int l = 1; l<=levels; l++) {
-                    //calculate new coordinate to increase frequency
-                    double x = getXFromIAtLevel(i, l);
-                    double y = getYFromJAtLevel(j, l);
-                    //divide by a smaller and smaller number to decrease amplitude, add to the sum
-                    perlinValue += (pNoise.perlin(new Point(x, y, frame))) * Math.pow(0.25, l - 1);
-                }
+        double[] perlinValues = new double[width];
+        int[] colors = new int[width];
+        //for every row
+        for(int j = 0; j<height; j++) {
+            //add Octaves at different levels, divide by a smaller and smaller number to decrease amplitude
+            getOctaveValues(j, levels, frame, 0.25, perlinValues);
+            for(int i = 0; i<width; i++) {
                 //divide by max possible number to bring result bck to [0;1]
-                perlinValue = perlinValue / 1.5;
-                UnitPoint rgb = getRGBFromPV(perlinValue);
-                int col = (rgb.getX() << 16) | (rgb.getY() << 8) | rgb.getZ();
-                image.setRGB(i, j, col);
+                double perlinValue = perlinValues[i] / 1.5;
+                colors[i] = colorTable.getColor(perlinValue);
             }
+            raster.setRow(j, 0, colors, width);
         }
     }
 
     ///this function fills the image with perlin noise and octaves using a different weight to decrease amplitude
     private void fillImageOctaves2(int levels, double frame) {
-        for(int i = 0; i<width; i++) {
-            for(int j = 0; j<height; j++) {
-                double perlinValue = 0;
-                for(int l = 1; l<=levels; l++) {
-                    double x = getXFromIAtLevel(i, l);
-                    double y = getYFromJAtLevel(j, l);
-                    perlinValue += pNoise.perlin(new Point(x, y, frame)) * Math.pow(0.5, l-1);
-                }
-                perlinValue = perlinValue / 2;
-                UnitPoint rgb = getRGBFromPV(perlinValue);
-                int col = (rgb.getX() << 16) | (rgb.getY() << 8) | rgb.getZ();
-                image.setRGB(i, j, col);
+        double[] perlinValues = new double[width];
+        int[] colors = new int[width];
+        for(int j = 0; j<height; j++) {
+            getOctaveValues(j, levels, frame, 0.5, perlinValues);
+            for(int i = 0; i<width; i++) {
+                double perlinValue = perlinValues[i] / 2;
+                colors[i] = colorTable.getColor(perlinValue);
+            }
+            raster.setRow(j, 0, colors, width);
+        }
+    }
+
+    //this function adds up the perlin values of the octaves for a row of the image and writes them into results
+    //the amplitude of level l is amplitude^(l-1)
+    //the values of every level are calculated for the whole row at once
+    private void getOctaveValues(int j, int levels, double frame, double amplitude, double[] results) {
+        double[] xs = new double[width];
+        double[] ys = new double[width];
+        double[] zs = new double[width];
+        double[] levelValues = new double[width];
+        Arrays.fill(results, 0, width, 0);
+        Arrays.fill(zs, frame);
+        for(int l = 1; l<=levels; l++) {
+            //calculate new coordinates to increase frequency
+            for(int i = 0; i<width; i++) {
+                xs[i] = getXFromIAtLevel(i, l);
+            }
+            Arrays.fill(ys, getYFromJAtLevel(j, l));
+            noise.getValuesAt(xs, ys, zs, levelValues, width);
+            double weight = Math.pow(amplitude, l - 1);
+            for(int i = 0; i<width; i++) {
+                results[i] += levelValues[i] * weight;
             }
         }
     }
 
     //this functions fills the image with perlin noise and turbulence
     private void fillImageTurbulence(){
-        //for every pixel
-        for(int i = 0; i<width; i++) {
-            double x = getXFromI(i);
-            for(int j = 0; j<height; j++) {
-                double y = getYFromJ(j);
-                //point on the surface of a sphere corresponding to current pixel
-                Point c = getSpherePoint(i, j, 1);
+        fillRegionTurbulence(raster, null, 0, 0, width, height);
+    }
 
-                //perlin value at point on sphere
-                double perlinValue = pNoise.perlin(c);
+    //this function fills the image with perlin noise and turbulence by splitting it into tiles
+    //the tiles are rendered by the threads of the given pool
+    private void fillImageTurbulenceParallel(ForkJoinPool pool) {
+        pool.invoke(new TileRenderTask(0, 0, width, height, tileSize,
+                (iStart, jStart, iEnd, jEnd) -> fillRegionTurbulence(raster, null, iStart, jStart, iEnd, jEnd)));
+    }
 
-                //used to create a "square texture" with results in distortion
-                //double perlinValue = pNoise.perlin(new Point(x, y, 0));
+    //this functions fills a part of the image with perlin noise and turbulence, iEnd and jEnd are exclusive
+    //the colors are written into target, which holds either the whole image or the band of rows containing the part
+    //if field is not null, the values are written into the field instead of mapping them to colors
+    private void fillRegionTurbulence(PixelRaster target, ScalarField field, int iStart, int jStart, int iEnd, int jEnd){
+        int count = iEnd - iStart;
+        //the arrays of the current row, one more point is needed when sampling depending on the latitude
+        RowBuffers buffers = RowBuffers.get(count + 1);
+        int[] colors = buffers.getColors();
+        //the points on the sphere corresponding to the pixels, shared with other textures of the same size
+        SphereSamplingGrid grid = SphereSamplingGrid.get(width, height, 1, coordinateFrameX / 2, coordinateFrameY / 2, coordinateFrameZ / 2);
+        //for every row
+        for(int j = jStart; j<jEnd; j++) {
+            //the values of the pixels of the row in [0;1]
+            double[] values;
+            int samples = getRowSamples(grid, j);
+            if(samples < width) {
+                getSampledValues(grid, j, samples, iStart, iEnd, buffers);
+                values = buffers.getSampledValues();
+            } else {
+                //points on the surface of a sphere corresponding to the pixels of the row
+                //the same as getSpherePoint with radius 1, without creating points
+                grid.getRow(j, iStart, iEnd, buffers.getXCoords(), buffers.getYCoords(), buffers.getZCoords());
+                getTextureValues(buffers, count);
+                values = buffers.getNoiseValues();
+            }
+            if(field != null) {
+                field.setRow(j, iStart, values, count);
+                continue;
+            }
+            for(int k = 0; k < count; k++) {
+                colors[k] = colorTable.getColor(values[k]);
+            }
+            target.setRow(j, iStart, colors, count);
+        }
+    }
 
-                //used to create striped textures for gas giants
-                //double perlinValue = y;//
+    //this function calculates the number of points the noise is calculated for in a row, see setLatitudeAdaptiveSampling
+    private int getRowSamples(SphereSamplingGrid grid, int j) {
+        if(samplingQuality <= 0) {
+            return width;
+        }
+        //the length of the circle of latitude compared to the equator
+        double length = grid.getRowSin(j);
+        int samples = (int) Math.ceil(width * length * samplingQuality);
+        return Math.min(width, Math.max(MIN_ROW_SAMPLES, samples));
+    }
 
-                //calculate turbulence value for point on sphere
-                double turbulence = getTurbulenceValue(5,c.getX(),2*c.getY(),c.getZ());
+    //this function calculates the values of the pixels from iStart to iEnd of row j by calculating the noise for samples points
+    //spread evenly around the circle of the row and interpolating between them, the values are written into the sampled values
+    //of the buffers, only the points next to the pixels of the part are calculated, the last point lies at 360 degrees,
+    //which is the same as the first one, so the row is continuous where its ends meet
+    private void getSampledValues(SphereSamplingGrid grid, int j, int samples, int iStart, int iEnd, RowBuffers buffers) {
+        double[] xs = buffers.getXCoords();
+        double[] ys = buffers.getYCoords();
+        double[] zs = buffers.getZCoords();
+        double[] perlinValues = buffers.getNoiseValues();
+        double[] values = buffers.getSampledValues();
+        double samplesPerPixel = samples / (double) width;
+        int first = (int) (iStart * samplesPerPixel);
+        int last = (int) ((iEnd - 1) * samplesPerPixel) + 1;
+        //the latitude terms are the same as for the pixels of the row
+        double sinY = grid.getRowSin(j);
+        double z = grid.getRowZ(j);
+        for(int k = first; k<=last; k++) {
+            double angleX = Math.toRadians(360 / (double) samples * k);
+            xs[k - first] = (Math.cos(angleX) * sinY) + (coordinateFrameX / 2);
+            ys[k - first] = (Math.sin(angleX) * sinY) + (coordinateFrameY / 2);
+            zs[k - first] = z;
+        }
+        getTextureValues(buffers, last - first + 1);
+        for(int i = iStart; i<iEnd; i++) {
+            double position = i * samplesPerPixel - first;
+            int k = (int) position;
+            values[i - iStart] = perlinValues[k] + (position - k) * (perlinValues[k + 1] - perlinValues[k]);
+        }
+    }
 
-                //calculate turbulence value for point in "square texture"
-                //double turbulence = getTurbulenceValue(5, x, y, 0);
+    //this function fills a part of a face of a cube map with perlin noise and turbulence, iEnd and jEnd are exclusive
+    //every pixel is mapped to the point on the sphere with radius 1 in the direction of the pixel
+    private void fillFaceRegionTurbulence(CubeMapFace face, int faceSize, PixelRaster target, int iStart, int jStart, int iEnd, int jEnd) {
+        int count = iEnd - iStart;
+        RowBuffers buffers = RowBuffers.get(count);
+        double[] xs = buffers.getXCoords();
+        double[] ys = buffers.getYCoords();
+        double[] zs = buffers.getZCoords();
+        int[] colors = buffers.getColors();
+        for(int j = jStart; j<jEnd; j++) {
+            double t = CubeMapFace.getFaceCoordinate(j, faceSize);
+            for(int i = iStart; i<iEnd; i++) {
+                double s = CubeMapFace.getFaceCoordinate(i, faceSize);
+                double px = face.getX(s, t);
+                double py = face.getY(s, t);
+                double pz = face.getZ(s, t);
+                //move the point onto the sphere
+                double length = Math.sqrt(px * px + py * py + pz * pz);
+                xs[i - iStart] = px / length + (coordinateFrameX / 2);
+                ys[i - iStart] = py / length + (coordinateFrameY / 2);
+                zs[i - iStart] = pz / length + (coordinateFrameZ / 2);
+            }
+            getTurbulenceColors(buffers, count);
+            target.setRow(j, iStart, colors, count);
+        }
+    }
 
-                //adding turbulence twice to perlin value (or y coordinate for stripes)
-                perlinValue = perlinValue + 2 * turbulence;
+    //this function calculates the colors for the row of points on the sphere stored in the buffers using perlin noise
+    //and turbulence, the colors are written into the colors of the buffers
+    private void getTurbulenceColors(RowBuffers buffers, int count) {
+        getTextureValues(buffers, count);
+        double[] perlinValues = buffers.getNoiseValues();
+        int[] colors = buffers.getColors();
+        for(int k = 0; k < count; k++) {
+            colors[k] = colorTable.getColor(perlinValues[k]);
+        }
+    }
 
-                //using sine to bring result back to [0;1]
-                perlinValue = Math.sin(perlinValue);
-                perlinValue = 0.5 * (perlinValue + 1);
+    //this function calculates the values in [0;1] mapped to the colors for the row of points on the sphere stored in the buffers
+    //using perlin noise and turbulence, the values are written into the noise values of the buffers
+    private void getTextureValues(RowBuffers buffers, int count) {
+        double[] perlinValues = buffers.getNoiseValues();
+        double[] turbulenceValues = buffers.getTurbulenceValues();
+        //perlin values at points on sphere
+        noise.getValuesAt(buffers.getXCoords(), buffers.getYCoords(), buffers.getZCoords(), perlinValues, count);
 
-                UnitPoint rgb = getRGBFromPV(perlinValue);
-                int col = (rgb.getX() << 16) | (rgb.getY() << 8) | rgb.getZ();
-                image.setRGB(i, j, col);
-            }
+        //used to create a "square texture" with results in distortion
+        //perlin values at (getXFromI(i), getYFromJ(j), 0)
+
+        //used to create striped textures for gas giants
+        //use getYFromJ(j) instead of the perlin values
+
+        //calculate turbulence values for points on sphere, with the y coordinate doubled
+        getTurbulenceValues(turbulenceOctaves, buffers, turbulenceValues, count);
+
+        //calculate turbulence value for point in "square texture"
+        //getTurbulenceValue(5, x, y, 0)
+
+        for(int k = 0; k < count; k++) {
+            //adding turbulence twice to perlin value (or y coordinate for stripes)
+            double perlinValue = perlinValues[k] + 2 * turbulenceValues[k];
+
+            //using sine to bring result back to [0;1]
+            perlinValue = Math.sin(perlinValue);
+            perlinValues[k] = 0.5 * (perlinValue + 1);
         }
     }
 
@@ -197,8 +504,8 @@ public class FileGenerator {
 
     private void fillImageWithSphereTest() {
         //for every pixel
-        for(int i = 0; i<width; i++) {
-            for (int j = 0; j < height; j++) {
+        for (int j = 0; j < height; j++) {
+            for(int i = 0; i<width; i++) {
                 //get corresponding point on sphere
                 Point c = getSpherePoint(i, j, 3);
                 //add rounded coordinates of point
@@ -213,25 +520,59 @@ public class FileGenerator {
                     rgb = new UnitPoint(0, 0, 0);
                 }
                 int col = (rgb.getX() << 16) | (rgb.getY() << 8) | rgb.getZ();
-                image.setRGB(i, j, col);
+                raster.setPixel(i, j, col);
             }
         }
     }
 
     //this function is used to calculate the Turbulence value
-    private double getTurbulenceValue(int steps, double x, double y, double z) {
+    //not private, so it can be measured by NoiseBenchmark
+    double getTurbulenceValue(int steps, double x, double y, double z) {
         double t = 0;
-        Point p = new Point(x,y,z);
         //for a given number of steps
         for(int i = 0; i<steps; i++) {
             //add noise value, with amplitude decreasing every step
-            t += (pNoise.perlin(p) * 2 - 1) / Math.pow(2, i);
+            t += (noise.getValueAt(x, y, z) * 2 - 1) / Math.pow(2, i);
             //increase frequency
-            p = p.times(2);
+            x *= 2;
+            y *= 2;
+            z *= 2;
         }
         return t/2;
     }
 
+    //this function calculates the turbulence values for the row of points stored in the buffers the same way as the function
+    //above, with the y coordinate doubled, and writes them into results
+    //the values of every step are calculated for the whole row at once
+    //the points are not changed, the points of the steps are stored in the octave arrays of the buffers
+    private void getTurbulenceValues(int steps, RowBuffers buffers, double[] results, int count) {
+        double[] xs = buffers.getOctaveX();
+        double[] ys = buffers.getOctaveY();
+        double[] zs = buffers.getOctaveZ();
+        double[] perlinValues = buffers.getOctaveValues();
+        System.arraycopy(buffers.getXCoords(), 0, xs, 0, count);
+        System.arraycopy(buffers.getZCoords(), 0, zs, 0, count);
+        double[] sphereY = buffers.getYCoords();
+        for(int k = 0; k < count; k++) {
+            ys[k] = 2 * sphereY[k];
+        }
+        Arrays.fill(results, 0, count, 0);
+        for(int i = 0; i<steps; i++) {
+            noise.getValuesAt(xs, ys, zs, perlinValues, count);
+            for(int k = 0; k < count; k++) {
+                //add noise value, with amplitude decreasing every step
+                results[k] += (perlinValues[k] * 2 - 1) / Math.pow(2, i);
+                //increase frequency
+                xs[k] *= 2;
+                ys[k] *= 2;
+                zs[k] *= 2;
+            }
+        }
+        for(int k = 0; k < count; k++) {
+            results[k] = results[k] / 2;
+        }
+    }
+
     //this function is used to fade a double using a polynomial
     private double fadeValue(double t) {
         return t * t * t * (t * (t * 6 - 15) + 10);
@@ -281,14 +622,31 @@ public class FileGenerator {
     }
 
     //This function is used to select the function used to map the noise value to a color
-    private UnitPoint getRGBFromPV(double pv) {
-        //return gradientBlackWhite(pv);
-        return gradientIce(pv);
-        //return gradientGasStripes(pv);
-        //return gradientWaterLand(pv);
-        //return gradientLavaRock(pv);
-        //return gradientAsteroid(pv);
-        //return gradientFire(pv);
+    //it is only used to calculate the color table, the pixels are colored using the color table
+    private UnitPoint getRGBFromPV(double pv, Gradient g) {
+        switch (g) {
+            case BLACK_WHITE -> {
+                return gradientBlackWhite(pv);
+            }
+            case FIRE -> {
+                return gradientFire(pv);
+            }
+            case WATER_LAND -> {
+                return gradientWaterLand(pv);
+            }
+            case LAVA_ROCK -> {
+                return gradientLavaRock(pv);
+            }
+            case ASTEROID -> {
+                return gradientAsteroid(pv);
+            }
+            case GAS_STRIPES -> {
+                return gradientGasStripes(pv);
+            }
+            default -> {
+                return gradientIce(pv);
+            }
+        }
     }
 
     /*
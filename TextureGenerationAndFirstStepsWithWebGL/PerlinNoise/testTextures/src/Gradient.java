@@ -0,0 +1,4 @@
+public enum Gradient {
+    //used to define the color gradient the file generator uses to map the noise value to a color
+    BLACK_WHITE, FIRE, WATER_LAND, LAVA_ROCK, ASTEROID, ICE, GAS_STRIPES;
+}
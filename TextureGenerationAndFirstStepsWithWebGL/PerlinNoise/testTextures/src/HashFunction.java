@@ -21,46 +21,105 @@ public class HashFunction {
     private int repeat = 0;
     //a seed for the hash function
     private int seed = 0;
+    //the results of the hash function for the values 0 to 511, calculated once using repeat and seed
+    //the hash function is only used with values below 511, if all coordinates are reduced using reduce() first
+    private int[] table = new int[512];
 
     //constructors
     public HashFunction(int r, int s) {
         this.repeat = r; this.seed = s;
+        setupTable();
     }
 
     public HashFunction() {
+        setupTable();
     }
 
-    //a function that increases an integer by one
-    private int inc(int i) {
-        return i + 1;
+    //this function calculates the results of the hash function for all values in the table
+    //it uses the repeat and seed value to select an entry to chose from the hash map
+    private void setupTable() {
+        for(int i = 0; i < table.length; i++) {
+            int j = i % 255;
+            if (repeat > 0) {
+                j %= repeat;
+            }
+            for (int k = 0; k < seed; k++) {
+                j = permutation[j];
+            }
+            table[i] = permutation[j];
+        }
+    }
+
+    //Getter for the table, used by VectorPerlinEvaluator to look up the hash values of a batch of coordinates
+    //the table must not be changed
+    public int[] getTable() {
+        return table;
     }
 
-    //the hash function, it uses the repeat and seed value to select an entry to chose from the hash map
-    //it then returns this entry
+    //this function brings a coordinate of a unit cube into the range used by the table
+    //the hash function only uses the coordinates modulo 255, so the result does not change
+    public static int reduce(int coordinate) {
+        return coordinate % 255;
+    }
+
+    //the hash function, returns the entry of the table
+    //i has to be below 512, which is the case for reduced coordinates increased by one plus a hash value
     private int hash(int i) {
-        i %= 255;
-        if (repeat > 0) {
-            i %= repeat;
-        }
-        for (int j = 0; j < seed; j++) {
-            i = permutation[i];
-        }
-        return permutation[i];
+        return table[i & 511];
+    }
+
+    //this function returns the hash value of a single corner of a unit cube, without creating any objects
+    //hash(x, y, z) is the same as the value stored in the hash result for the corner (x, y, z)
+    public int hash(int x, int y, int z) {
+        return hashReduced(reduce(x), reduce(y), reduce(z));
+    }
+
+    //this function does the same as the function above for coordinates reduced using reduce()
+    //the coordinates can also be reduced coordinates increased by one, so all corners of a unit cube
+    //can be hashed by reducing the coordinates of the cube once
+    public int hashReduced(int x, int y, int z) {
+        return hash(z + hash(y + hash(x)));
+    }
+
+    //this function writes the hash values of all 8 corners of the unit cube (x, y, z) into result
+    //in the order aaa, aba, aab, abb, baa, bba, bab, bbb, where a stands for the coordinate and b for the coordinate + 1,
+    //for example aba is the corner (x, y+1, z)
+    public void hash(int x, int y, int z, int[] result) {
+        x = reduce(x);
+        y = reduce(y);
+        z = reduce(z);
+        int a = hash(x);
+        int b = hash(x + 1);
+        int aa = hash(y + a);
+        int ab = hash(y + 1 + a);
+        int ba = hash(y + b);
+        int bb = hash(y + 1 + b);
+        result[0] = hash(z + aa);
+        result[1] = hash(z + ab);
+        result[2] = hash(z + 1 + aa);
+        result[3] = hash(z + 1 + ab);
+        result[4] = hash(z + ba);
+        result[5] = hash(z + bb);
+        result[6] = hash(z + 1 + ba);
+        result[7] = hash(z + 1 + bb);
     }
 
     //this functions is used to chose the direction vectors from a unit point
     //These vectors are needed to calculate the perlin noise
     //By using the hash function we make sure, that the same point returns the same vector every time
     public HashResult hash(UnitPoint p) {
+        int x = reduce(p.getX());
+        int y = reduce(p.getY());
+        int z = reduce(p.getZ());
         HashResult result = new HashResult();
-        result.setAaa(hash(p.getZ() + hash(p.getY() + hash(p.getX()))));
-        result.setAba(hash(p.getZ() + hash(inc(p.getY()) + hash(p.getX()))));
-        result.setAab(hash(inc(p.getZ()) + hash(p.getY() + hash(p.getX()))));
-        result.setAbb(hash(inc(p.getZ()) + hash(inc(p.getY()) + hash(p.getX()))));
-        result.setBaa(hash(p.getZ() + hash(p.getY() + hash(inc(p.getX())))));
-        result.setBba(hash(p.getZ() + hash(inc(p.getY()) + hash(inc(p.getX())))));
-        result.setBab(hash(inc(p.getZ()) + hash(p.getY() + hash(inc(p.getX())))));
-        result.setBbb(hash(inc(p.getZ()) + hash(inc(p.getY()) + hash(inc(p.getX())))));
+        result.setAaa(hashReduced(x, y, z));
+        result.setAba(hashReduced(x, y + 1, z));
+        result.setAab(hashReduced(x, y, z + 1));
+        result.setAbb(hashReduced(x, y + 1, z + 1));
+        result.setBaa(hashReduced(x + 1, y, z));
+        result.setBba(hashReduced(x + 1, y + 1, z));
+        result.setBab(hashReduced(x + 1, y, z + 1));
+        result.setBbb(hashReduced(x + 1, y + 1, z + 1));
         return result;
     }
 }
@@ -2,6 +2,11 @@ public class Main {
 
     //this class is used to run the program and edit the settings
     public static void main(String[] args) {
+        //if a manifest is given, create all textures listed in it, see TextureFarm
+        if(args.length > 0) {
+            TextureFarm.main(args, TextureJob::parse);
+            return;
+        }
 
         System.out.println("starting");
         //PerlinNoise pNoise = new PerlinNoise(32);
@@ -0,0 +1,119 @@
+import java.util.function.IntToDoubleFunction;
+
+public class NoiseBenchmark {
+
+    //this class creates the functions used for every pixel when creating a texture, so they can be measured
+    //the measuring is done by the JMH benchmarks in PerlinNoise/benchmarks, which can not use the classes directly,
+    //because they are in the default package
+    //every operation gets a counter, so it can use different inputs every time, and returns a value,
+    //which is given to JMH, so the JIT compiler can not remove the operation
+    //the coordinates lie on a sphere like the pixels of a texture
+
+    //the names of the operations
+    public static final String[] OPERATIONS = {
+            "PerlinNoise.perlin(Point)",
+            "PerlinRowEvaluator.perlin",
+            "VectorPerlinEvaluator.perlin",
+            "HashFunction.hash(UnitPoint)",
+            "HashFunction.hash(x,y,z,int[])",
+            "SimplexNoise.getValueAt",
+            "SimplexNoise.getValuesAt",
+            "FileGenerator.getTurbulenceValue"
+    };
+
+    //the number of coordinates the operations cycle through
+    private static final int SAMPLES = 4096;
+    //the number of coordinates in a row, the operations working on rows calculate a whole row at once
+    public static final int ROW_LENGTH = 256;
+    //the size of the coordinate frame, the sphere lies in its center
+    private static final double FRAME = 24;
+
+    //this function creates the operation with the given name, see OPERATIONS
+    //repeat and seed are the parameters of the noise, repeat is not used by the simplex noise
+    public static IntToDoubleFunction createOperation(String operation, int repeat, int seed) {
+        //coordinates on the sphere, 16 rows of 256 coordinates each like the pixels of a texture
+        double[] x = new double[SAMPLES];
+        double[] y = new double[SAMPLES];
+        double[] z = new double[SAMPLES];
+        Point[] points = new Point[SAMPLES];
+        UnitPoint[] unitPoints = new UnitPoint[SAMPLES];
+        double[][] xRows = new double[SAMPLES / ROW_LENGTH][ROW_LENGTH];
+        double[][] yRows = new double[SAMPLES / ROW_LENGTH][ROW_LENGTH];
+        double[][] zRows = new double[SAMPLES / ROW_LENGTH][ROW_LENGTH];
+        for(int i = 0; i < SAMPLES; i++) {
+            double angleX = Math.toRadians(360.0 / ROW_LENGTH * (i % ROW_LENGTH));
+            double angleY = Math.toRadians(180.0 / xRows.length * (i / ROW_LENGTH) + 5);
+            x[i] = Math.cos(angleX) * Math.sin(angleY) + FRAME / 2;
+            y[i] = Math.sin(angleX) * Math.sin(angleY) + FRAME / 2;
+            z[i] = Math.cos(angleY) + FRAME / 2;
+            xRows[i / ROW_LENGTH][i % ROW_LENGTH] = x[i];
+            yRows[i / ROW_LENGTH][i % ROW_LENGTH] = y[i];
+            zRows[i / ROW_LENGTH][i % ROW_LENGTH] = z[i];
+            points[i] = new Point(x[i], y[i], z[i]);
+            unitPoints[i] = new UnitPoint(points[i].times(4));
+        }
+        double[] results = new double[ROW_LENGTH];
+
+        switch (operation) {
+            case "PerlinNoise.perlin(Point)" -> {
+                PerlinNoise noise = new PerlinNoise(repeat, seed);
+                return i -> noise.perlin(points[i & (SAMPLES - 1)]);
+            }
+            case "PerlinRowEvaluator.perlin" -> {
+                PerlinRowEvaluator evaluator = new PerlinRowEvaluator(new PerlinNoise(repeat, seed));
+                return i -> {
+                    int row = i % xRows.length;
+                    evaluator.perlin(xRows[row], yRows[row], zRows[row], results, ROW_LENGTH);
+                    return results[0];
+                };
+            }
+            //the same as above with the vector api, which has to be available
+            case "VectorPerlinEvaluator.perlin" -> {
+                VectorSupport.checkAvailable();
+                VectorPerlinEvaluator evaluator = new VectorPerlinEvaluator(new PerlinNoise(repeat, seed));
+                return i -> {
+                    int row = i % xRows.length;
+                    evaluator.perlin(xRows[row], yRows[row], zRows[row], results, ROW_LENGTH);
+                    return results[0];
+                };
+            }
+            case "HashFunction.hash(UnitPoint)" -> {
+                HashFunction hashFunction = new HashFunction(repeat, seed);
+                return i -> hashFunction.hash(unitPoints[i & (SAMPLES - 1)]).getAaa();
+            }
+            case "HashFunction.hash(x,y,z,int[])" -> {
+                HashFunction hashFunction = new HashFunction(repeat, seed);
+                int[] corners = new int[8];
+                return i -> {
+                    UnitPoint p = unitPoints[i & (SAMPLES - 1)];
+                    hashFunction.hash(p.getX(), p.getY(), p.getZ(), corners);
+                    return corners[0];
+                };
+            }
+            case "SimplexNoise.getValueAt" -> {
+                SimplexNoise simplexNoise = new SimplexNoise(seed);
+                return i -> {
+                    int k = i & (SAMPLES - 1);
+                    return simplexNoise.getValueAt(x[k], y[k], z[k]);
+                };
+            }
+            case "SimplexNoise.getValuesAt" -> {
+                SimplexNoise simplexNoise = new SimplexNoise(seed);
+                return i -> {
+                    int row = i % xRows.length;
+                    simplexNoise.getValuesAt(xRows[row], yRows[row], zRows[row], results, ROW_LENGTH);
+                    return results[0];
+                };
+            }
+            //the turbulence is calculated like in FileGenerator with 5 octaves, with the y coordinate doubled
+            case "FileGenerator.getTurbulenceValue" -> {
+                FileGenerator generator = new FileGenerator(new PerlinNoise(repeat, seed), 256, 16, FRAME, FRAME, FRAME);
+                return i -> {
+                    int k = i & (SAMPLES - 1);
+                    return generator.getTurbulenceValue(5, x[k], 2 * y[k], z[k]);
+                };
+            }
+            default -> throw new IllegalArgumentException("unknown operation " + operation);
+        }
+    }
+}
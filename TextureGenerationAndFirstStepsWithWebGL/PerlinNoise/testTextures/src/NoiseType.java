@@ -0,0 +1,5 @@
+public enum NoiseType {
+    //used to define the noise function used to create a texture, PERLIN is the perlin noise (see PerlinNoise),
+    //SIMPLEX is the cheaper simplex noise (see SimplexNoise)
+    PERLIN, SIMPLEX;
+}
@@ -1,52 +1,134 @@
 import java.util.concurrent.ThreadLocalRandom;
 
-public class PerlinNoise {
+public class PerlinNoise implements NoiseSource {
 
     //this class calculates the perlin noise values
     //it was implemented using the guide on https://adrianb.io/2014/08/09/perlinnoise.html
 
     //"size" of the noise until it repeats
     private int repeat = 0;
+    //the seed of the hash function
+    private int seed = 0;
     //the hash function used for the perlin noise
     private HashFunction hashFunction = new HashFunction();
+    //whether the batch function uses VectorPerlinEvaluator, which needs the vector api, see VectorSupport
+    private boolean vectorEvaluator = VectorSupport.isEnabled();
 
     //constructors
     public PerlinNoise() {}
+    //uses a random seed
     public PerlinNoise(int r) {
-        this.repeat = r;
-        int seed = ThreadLocalRandom.current().nextInt() % 32;
-        seed = Math.abs(seed);
+        this(r, Math.abs(ThreadLocalRandom.current().nextInt() % 32));
         System.out.println(seed);
-        hashFunction = new HashFunction(r, seed);
+    }
+    //the same repeat and seed always result in the same noise
+    public PerlinNoise(int r, int s) {
+        this.repeat = r;
+        this.seed = s;
+        hashFunction = new HashFunction(r, s);
+    }
+
+    //Getter for the repeat and the seed, noise with the same repeat and seed has the same values
+    public int getRepeat() {
+        return repeat;
+    }
+
+    public int getSeed() {
+        return seed;
+    }
+
+    //Getter for the hash function, used by PerlinRowEvaluator and VectorPerlinEvaluator
+    public HashFunction getHashFunction() {
+        return hashFunction;
+    }
+
+    //Setter for the use of VectorPerlinEvaluator by the batch function
+    //by default it is only used if it is switched on by the system property of VectorSupport
+    public void setVectorEvaluator(boolean vectorEvaluator) {
+        if(vectorEvaluator) {
+            VectorSupport.checkAvailable();
+        }
+        this.vectorEvaluator = vectorEvaluator;
+    }
+
+    public boolean isVectorEvaluator() {
+        return vectorEvaluator;
     }
 
     //this function calculates the perlin noise value
     public double perlin(Point pStart) {
-        Point p = pStart;
+        return perlin(pStart.getX(), pStart.getY(), pStart.getZ());
+    }
+
+    //this function calculates the perlin noise value at the given coordinates
+    //it does not create any objects, so it can be called multiple times for every pixel
+    //without putting load on the garbage collector
+    public double perlin(double x, double y, double z) {
         if (repeat > 0) {
-            p = new Point(pStart.getX() % repeat, pStart.getY() % repeat, pStart.getZ() % repeat);
+            x = x % repeat;
+            y = y % repeat;
+            z = z % repeat;
         }
-        UnitPoint up = new UnitPoint(p);
-        Point rp = new Point(p.getX() % 1, p.getY() % 1, p.getZ() % 1);
-        Point rpf = rp.fade();
-        HashResult hr = hashFunction.hash(up);
+        //the unit cube containing the point
+        int xi = (int) x;
+        int yi = (int) y;
+        int zi = (int) z;
+        //the unit cube reduced for the hash function, its corners are hashed using these coordinates plus 0 or 1
+        int xr = HashFunction.reduce(xi);
+        int yr = HashFunction.reduce(yi);
+        int zr = HashFunction.reduce(zi);
+        //the position of the point within the unit cube
+        double xf = x % 1;
+        double yf = y % 1;
+        double zf = z % 1;
+        //the faded position, used to interpolate between the corners
+        double u = Point.fadeValue(xf);
+        double v = Point.fadeValue(yf);
+        double w = Point.fadeValue(zf);
         double x1, x2, y1, y2;
-        x1 = interpolate(grad(hr.getAaa(), rp.getX(), rp.getY(), rp.getZ()),
-                        grad(hr.getBaa(),rp.getX()-1, rp.getY(), rp.getZ()),
-                        rpf.getX());
-        x2 = interpolate(grad(hr.getAba(), rp.getX(), rp.getY()-1, rp.getZ()),
-                        grad(hr.getBba(),rp.getX()-1, rp.getY()-1, rp.getZ()),
-                        rpf.getX());
-        y1 = interpolate(x1, x2, rpf.getY());
-        x1 = interpolate(grad(hr.getAab(), rp.getX(), rp.getY(), rp.getZ()-1),
-                        grad(hr.getBab(),rp.getX()-1, rp.getY(), rp.getZ()-1),
-                        rpf.getX());
-        x2 = interpolate(grad(hr.getAbb(), rp.getX(), rp.getY()-1, rp.getZ()-1),
-                        grad(hr.getBbb(),rp.getX()-1, rp.getY()-1, rp.getZ()-1),
-                        rpf.getX());
-        y2 = interpolate(x1, x2, rpf.getY());
-
-        return (interpolate(y1, y2, rpf.getZ())+1)/2;
+        x1 = interpolate(grad(hashFunction.hashReduced(xr, yr, zr), xf, yf, zf),
+                        grad(hashFunction.hashReduced(xr + 1, yr, zr), xf - 1, yf, zf),
+                        u);
+        x2 = interpolate(grad(hashFunction.hashReduced(xr, yr + 1, zr), xf, yf - 1, zf),
+                        grad(hashFunction.hashReduced(xr + 1, yr + 1, zr), xf - 1, yf - 1, zf),
+                        u);
+        y1 = interpolate(x1, x2, v);
+        x1 = interpolate(grad(hashFunction.hashReduced(xr, yr, zr + 1), xf, yf, zf - 1),
+                        grad(hashFunction.hashReduced(xr + 1, yr, zr + 1), xf - 1, yf, zf - 1),
+                        u);
+        x2 = interpolate(grad(hashFunction.hashReduced(xr, yr + 1, zr + 1), xf, yf - 1, zf - 1),
+                        grad(hashFunction.hashReduced(xr + 1, yr + 1, zr + 1), xf - 1, yf - 1, zf - 1),
+                        u);
+        y2 = interpolate(x1, x2, v);
+
+        return (interpolate(y1, y2, w)+1)/2;
+    }
+
+    //this function calculates the perlin noise values for a batch of coordinates and writes them into results
+    //the results are the same as the ones returned by perlin(x, y, z)
+    //the evaluator of the current thread is used, so this does not create any objects
+    //with the vector evaluator the coordinates are calculated with the vector api, see VectorPerlinEvaluator
+    public void perlin(double[] x, double[] y, double[] z, double[] results, int count) {
+        if(vectorEvaluator) {
+            VectorPerlinEvaluator.get(this).perlin(x, y, z, results, count);
+        } else {
+            PerlinRowEvaluator.get(this).perlin(x, y, z, results, count);
+        }
+    }
+
+    @Override
+    public double getValueAt(double x, double y, double z) {
+        return perlin(x, y, z);
+    }
+
+    @Override
+    public void getValuesAt(double[] x, double[] y, double[] z, double[] results, int count) {
+        perlin(x, y, z, results, count);
+    }
+
+    @Override
+    public String getParameters() {
+        return "PerlinNoise repeat=" + repeat + " seed=" + seed;
     }
 
     // this function is used to bring the result into the interval [0;1]
@@ -0,0 +1,130 @@
+public class PerlinRowEvaluator {
+
+    //this class calculates the perlin noise values for a whole row of coordinates at once
+    //neighbouring coordinates of a row are usually in the same unit cube, so the gradients of the corners
+    //of the current unit cube are kept and only calculated again when the next coordinate is in another unit cube
+    //the results are the same as the ones returned by PerlinNoise.perlin
+    //it keeps the current unit cube, so every thread needs its own evaluator
+    //PerlinNoise uses the evaluator of the current thread, see get, so calculating a batch does not allocate memory
+
+    //the gradients selected by the hash values, gradient h is (GRADIENT_X[h], GRADIENT_Y[h], GRADIENT_Z[h])
+    //these are the same gradients as in PerlinNoise.grad
+    //not private, so VectorPerlinEvaluator can look up the gradients in the same tables, they must not be changed
+    static final double[] GRADIENT_X = {1, -1, 1, -1, 1, -1, 1, -1, 0, 0, 0, 0, 1, 0, -1, 0};
+    static final double[] GRADIENT_Y = {1, 1, -1, -1, 0, 0, 0, 0, 1, -1, 1, -1, 1, -1, 1, -1};
+    static final double[] GRADIENT_Z = {0, 0, 0, 0, 1, 1, -1, -1, 1, 1, -1, -1, 0, 1, 0, -1};
+
+    //the evaluator of every thread, see get
+    private static final ThreadLocal<PerlinRowEvaluator> instances = new ThreadLocal<>();
+
+    //the "size" of the noise until it repeats
+    private int repeat;
+    //the hash function of the noise
+    private HashFunction hashFunction;
+
+    //the current unit cube, the first coordinate is never in this cube
+    private int cubeX = Integer.MIN_VALUE;
+    private int cubeY = Integer.MIN_VALUE;
+    private int cubeZ = Integer.MIN_VALUE;
+    //the hash values of the corners of the current unit cube, in the order used by HashFunction
+    private int[] corners = new int[8];
+    //the gradients of the corners of the current unit cube, in the same order
+    private double[] gradientX = new double[8];
+    private double[] gradientY = new double[8];
+    private double[] gradientZ = new double[8];
+
+    //constructor
+    public PerlinRowEvaluator(PerlinNoise noise) {
+        this.repeat = noise.getRepeat();
+        this.hashFunction = noise.getHashFunction();
+    }
+
+    //this function returns the evaluator of the current thread for the given noise, it must not be used by two
+    //calculations at the same time
+    //if the thread used it for another noise before, it is switched to the given noise and forgets its unit cube
+    public static PerlinRowEvaluator get(PerlinNoise noise) {
+        PerlinRowEvaluator evaluator = instances.get();
+        if(evaluator == null) {
+            evaluator = new PerlinRowEvaluator(noise);
+            instances.set(evaluator);
+        } else if(evaluator.hashFunction != noise.getHashFunction() || evaluator.repeat != noise.getRepeat()) {
+            evaluator.repeat = noise.getRepeat();
+            evaluator.hashFunction = noise.getHashFunction();
+            evaluator.cubeX = Integer.MIN_VALUE;
+            evaluator.cubeY = Integer.MIN_VALUE;
+            evaluator.cubeZ = Integer.MIN_VALUE;
+        }
+        return evaluator;
+    }
+
+    //this function calculates the perlin noise values for a batch of coordinates and writes them into results
+    public void perlin(double[] x, double[] y, double[] z, double[] results, int count) {
+        for(int k = 0; k < count; k++) {
+            results[k] = perlin(x[k], y[k], z[k]);
+        }
+    }
+
+    //this function calculates the perlin noise values for a row of coordinates with the same y and z coordinate
+    public void perlin(double[] x, double y, double z, double[] results, int count) {
+        for(int k = 0; k < count; k++) {
+            results[k] = perlin(x[k], y, z);
+        }
+    }
+
+    //this function calculates the perlin noise value the same way as PerlinNoise.perlin,
+    //using the gradients of the current unit cube
+    private double perlin(double x, double y, double z) {
+        if (repeat > 0) {
+            x = x % repeat;
+            y = y % repeat;
+            z = z % repeat;
+        }
+        int xi = (int) x;
+        int yi = (int) y;
+        int zi = (int) z;
+        if(xi != cubeX || yi != cubeY || zi != cubeZ) {
+            setCube(xi, yi, zi);
+        }
+        //the position within the unit cube, x - xi is the same as x % 1 but much faster
+        //only the sign of a position of 0 can be different, which does not change the result
+        double xf = x - xi;
+        double yf = y - yi;
+        double zf = z - zi;
+        double u = Point.fadeValue(xf);
+        double v = Point.fadeValue(yf);
+        double w = Point.fadeValue(zf);
+        double x1, x2, y1, y2;
+        x1 = interpolate(grad(0, xf, yf, zf), grad(4, xf - 1, yf, zf), u);
+        x2 = interpolate(grad(1, xf, yf - 1, zf), grad(5, xf - 1, yf - 1, zf), u);
+        y1 = interpolate(x1, x2, v);
+        x1 = interpolate(grad(2, xf, yf, zf - 1), grad(6, xf - 1, yf, zf - 1), u);
+        x2 = interpolate(grad(3, xf, yf - 1, zf - 1), grad(7, xf - 1, yf - 1, zf - 1), u);
+        y2 = interpolate(x1, x2, v);
+        return (interpolate(y1, y2, w)+1)/2;
+    }
+
+    //this function hashes the corners of a new unit cube and selects their gradients
+    private void setCube(int xi, int yi, int zi) {
+        cubeX = xi;
+        cubeY = yi;
+        cubeZ = zi;
+        hashFunction.hash(xi, yi, zi, corners);
+        for(int c = 0; c < 8; c++) {
+            int h = corners[c] & 0xF;
+            gradientX[c] = GRADIENT_X[h];
+            gradientY[c] = GRADIENT_Y[h];
+            gradientZ[c] = GRADIENT_Z[h];
+        }
+    }
+
+    //the gradient function, the dot product of the gradient of a corner and the distance vector
+    //the terms with a gradient of 0 do not change the result
+    private double grad(int corner, double x, double y, double z) {
+        return gradientX[corner] * x + gradientY[corner] * y + gradientZ[corner] * z;
+    }
+
+    //this function interpolates between a and b
+    private double interpolate(double a, double b, double x) {
+        return a + x * (b - a);
+    }
+}
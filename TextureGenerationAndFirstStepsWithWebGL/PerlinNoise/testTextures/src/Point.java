@@ -39,7 +39,7 @@ public class Point {
     }
 
     // the function that fades a single coordinate using a polynomial
-    private double fadeValue(double t) {
+    public static double fadeValue(double t) {
         return t * t * t * (t * (t * 6 - 15) + 10);
     }
 
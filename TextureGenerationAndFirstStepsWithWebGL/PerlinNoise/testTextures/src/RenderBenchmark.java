@@ -0,0 +1,96 @@
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Supplier;
+
+public class RenderBenchmark {
+
+    //this class measures the creation of whole textures with perlin noise and turbulence using the file generator
+    //arguments of the form name=value, lists are separated by commas:
+    //resolution (width and height in pixels, default 512,1024,2048,4096), octaves (default 5),
+    //threads (default 1 and all cores), repeat (default 24), seed (default 1), frame (size of the coordinate frame, default 24)
+    //quality (see FileGenerator.setLatitudeAdaptiveSampling, default 0),
+    //golden (file with the checksums of the textures, default none), record (true to add missing checksums to the file)
+    //the checksums of the textures created with the default arguments and with resolution 8192 are stored in
+    //PerlinNoise/testTextures/golden-checksums.txt, a mismatch means that a change altered the textures
+    //8192 is not measured by default, its pixels alone need 256 MB and a single thread needs minutes for it
+    //every combination of resolution, octaves, quality and threads is measured
+    //for every texture it prints the time needed to fill the image and to compress it,
+    //the pixels created per second, the highest memory usage and the checksum of the pixels
+    //if the checksum does not match the golden checksum, the program exits with an error
+    //the throughput is measured more exactly by the JMH benchmarks in PerlinNoise/benchmarks, which use createRender
+
+    //this function creates a generator with the default repeat and frame and returns a function,
+    //which fills its image using the threads of the pool and returns the colors of the pixels
+    public static Supplier<int[]> createRender(int resolution, int octaves, double quality, int seed, ForkJoinPool pool) {
+        FileGenerator generator = new FileGenerator(new PerlinNoise(24, seed), resolution, resolution, 24, 24, 24);
+        generator.setTurbulenceOctaves(octaves);
+        generator.setLatitudeAdaptiveSampling(quality);
+        return () -> generator.renderTurbulenceParallel(pool);
+    }
+
+    //this function runs all benchmarks and prints the results
+    public static void main(String[] args) throws IOException {
+        Map<String, String> arguments = Benchmark.parseArguments(args);
+        int[] resolutions = Benchmark.parseInts(arguments.getOrDefault("resolution", "512,1024,2048,4096"));
+        int[] octaveCounts = Benchmark.parseInts(arguments.getOrDefault("octaves", "5"));
+        double[] qualities = Benchmark.parseDoubles(arguments.getOrDefault("quality", "0"));
+        int[] threadCounts = Benchmark.parseInts(arguments.getOrDefault("threads",
+                "1," + Runtime.getRuntime().availableProcessors()));
+        int repeat = Integer.parseInt(arguments.getOrDefault("repeat", "24"));
+        int seed = Integer.parseInt(arguments.getOrDefault("seed", "1"));
+        double frame = Double.parseDouble(arguments.getOrDefault("frame", "24"));
+        boolean record = Boolean.parseBoolean(arguments.getOrDefault("record", "false"));
+        GoldenChecksums golden = arguments.containsKey("golden") ? new GoldenChecksums(new File(arguments.get("golden")), record) : null;
+
+        System.out.println("resolution,octaves,quality,threads,renderSeconds,encodeSeconds,"
+                + "wallSeconds,megapixelsPerSecond,peakHeapMB,checksum,golden");
+        boolean mismatch = false;
+        for(int resolution : resolutions) {
+            for(int octaves : octaveCounts) {
+                for(double quality : qualities) {
+                    for(int threads : threadCounts) {
+                        ForkJoinPool pool = new ForkJoinPool(threads);
+                        Benchmark.resetPeakHeap();
+                        long start = System.nanoTime();
+                        FileGenerator generator = new FileGenerator(new PerlinNoise(repeat, seed), resolution, resolution, frame, frame, frame);
+                        generator.setTurbulenceOctaves(octaves);
+                        generator.setLatitudeAdaptiveSampling(quality);
+                        int[] pixels = generator.renderTurbulenceParallel(pool);
+                        long renderEnd = System.nanoTime();
+                        //the image is compressed without writing it to disk, so the disk does not change the result
+                        try (PngWriter writer = new PngWriter(OutputStream.nullOutputStream(), resolution, resolution)) {
+                            writer.writeRows(pixels, 0, resolution, pool);
+                        }
+                        long end = System.nanoTime();
+                        long peakHeap = Benchmark.getPeakHeapBytes();
+                        pool.shutdown();
+
+                        String checksum = Benchmark.checksum(pixels);
+                        String result = "-";
+                        if(golden != null) {
+                            result = golden.check("FileGenerator " + resolution + "x" + resolution + " frame=" + frame
+                                    + " repeat=" + repeat + " octaves=" + octaves + " seed=" + seed
+                                    + (quality > 0 ? " quality=" + quality : ""), checksum);
+                            mismatch |= result.equals("MISMATCH");
+                        }
+                        System.out.println(String.format(Locale.ROOT, "%d,%d,%s,%d,%.3f,%.3f,%.3f,%.2f,%.1f,%s,%s",
+                                resolution, octaves, quality, threads, (renderEnd - start) / 1e9, (end - renderEnd) / 1e9,
+                                (end - start) / 1e9, (double) resolution * resolution / ((end - start) / 1e9) / 1e6,
+                                peakHeap / (1024.0 * 1024.0), checksum.substring(0, 16), result));
+                    }
+                }
+            }
+        }
+        if(golden != null && record) {
+            golden.save();
+        }
+        if(mismatch) {
+            System.out.println("the textures do not match the golden checksums");
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,79 @@
+import java.io.File;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+
+public class TextureJob implements TextureFarmJob {
+
+    //this class describes a texture listed in the manifest of the texture farm
+    //a line of the manifest has the form
+    //name,width,height,coordinateFrameX,coordinateFrameY,coordinateFrameZ,repeat,gradient[,seed[,noiseType]]
+    //if no seed is given, a random seed is used, if no noise type is given, perlin noise is used
+    //repeat is only used by perlin noise
+
+    //the name of the texture, also used as file name
+    private String name;
+    //the parameters of the file generator
+    private int width;
+    private int height;
+    private double coordinateFrameX;
+    private double coordinateFrameY;
+    private double coordinateFrameZ;
+    //the parameters of the perlin noise
+    private int repeat;
+    private Gradient gradient;
+    //the seed of the noise, null if a random seed should be used
+    private Integer seed;
+    //the noise function used
+    private NoiseType noiseType;
+
+    //constructor
+    public TextureJob(String name, int width, int height, double coordinateFrameX, double coordinateFrameY,
+                      double coordinateFrameZ, int repeat, Gradient gradient, Integer seed, NoiseType noiseType) {
+        this.name = name;
+        this.width = width;
+        this.height = height;
+        this.coordinateFrameX = coordinateFrameX;
+        this.coordinateFrameY = coordinateFrameY;
+        this.coordinateFrameZ = coordinateFrameZ;
+        this.repeat = repeat;
+        this.gradient = gradient;
+        this.seed = seed;
+        this.noiseType = noiseType;
+    }
+
+    //this function creates a texture job from a line of the manifest
+    public static TextureJob parse(String line) {
+        String[] fields = line.split(",", -1);
+        if(fields.length < 8 || fields.length > 10) {
+            throw new IllegalArgumentException("expected name,width,height,coordinateFrameX,coordinateFrameY,coordinateFrameZ,repeat,gradient[,seed[,noiseType]]");
+        }
+        Integer seed = fields.length >= 9 && !fields[8].isBlank() ? Integer.parseInt(fields[8].trim()) : null;
+        NoiseType noiseType = fields.length == 10 && !fields[9].isBlank() ? NoiseType.valueOf(fields[9].trim()) : NoiseType.PERLIN;
+        return new TextureJob(fields[0].trim(), Integer.parseInt(fields[1].trim()), Integer.parseInt(fields[2].trim()),
+                Double.parseDouble(fields[3].trim()), Double.parseDouble(fields[4].trim()), Double.parseDouble(fields[5].trim()),
+                Integer.parseInt(fields[6].trim()), Gradient.valueOf(fields[7].trim()), seed, noiseType);
+    }
+
+    //Getter for the name and the number of pixels of the texture
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public long getPixels() {
+        return (long) width * height;
+    }
+
+    //this function creates the texture and writes it to file using the threads of the pool
+    @Override
+    public void render(File file, ForkJoinPool pool) {
+        NoiseSource noise = switch (noiseType) {
+            case PERLIN -> seed == null ? new PerlinNoise(repeat) : new PerlinNoise(repeat, seed);
+            case SIMPLEX -> new SimplexNoise(seed == null ? ThreadLocalRandom.current().nextInt() : seed);
+        };
+        FileGenerator generator = new FileGenerator(noise, width, height, coordinateFrameX, coordinateFrameY, coordinateFrameZ);
+        generator.setGradient(gradient);
+        generator.generateTurbulenceParallel(file, pool);
+    }
+}
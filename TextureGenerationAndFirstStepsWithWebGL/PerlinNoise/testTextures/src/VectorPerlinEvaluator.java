@@ -0,0 +1,207 @@
+import jdk.incubator.vector.DoubleVector;
+import jdk.incubator.vector.VectorSpecies;
+
+public class VectorPerlinEvaluator {
+
+    //this class calculates the perlin noise values for a batch of coordinates with the vector api
+    //it is only loaded if it is switched on and the vector api is available, see VectorSupport,
+    //PerlinNoise uses PerlinRowEvaluator otherwise
+    //the batch is calculated in steps, every step is a short loop over all coordinates of the batch:
+    //the unit cubes of the coordinates and the positions within them are calculated, the hash values of the corners
+    //are looked up in the table of the hash function and the gradients in the gradient tables, then the fade, the dot
+    //products and the interpolation are done with vectors, as many coordinates as fit into a vector at once
+    //the lookups are done for every coordinate on its own, the gathers of the vector api of java 17 were not faster,
+    //and the JIT compiler could not inline enough of them, so it had to create objects for the vectors
+    //no function takes or returns a vector for the same reason
+    //the calculations are done in the same order as in PerlinRowEvaluator, so the results are the same
+    //unlike PerlinRowEvaluator the corners are hashed again for every coordinate, so depending on the processor
+    //this can be slower than PerlinRowEvaluator for rows of neighbouring coordinates
+    //it keeps arrays for the current batch, so every thread needs its own evaluator
+
+    //the number of doubles in a vector is chosen by the JVM for the processor
+    private static final VectorSpecies<Double> SPECIES = DoubleVector.SPECIES_PREFERRED;
+    //the number of coordinates calculated at once
+    private static final int LANES = SPECIES.length();
+
+    //the evaluator of every thread, see get
+    private static final ThreadLocal<VectorPerlinEvaluator> instances = new ThreadLocal<>();
+
+    //the "size" of the noise until it repeats
+    private int repeat;
+    //the table of the hash function of the noise
+    private int[] table;
+
+    //the arrays of the current batch, their length is a multiple of LANES
+    //the unit cubes of the coordinates, reduced for the hash function, and the positions of the coordinates within them
+    private int[] cubeX = new int[0];
+    private int[] cubeY = new int[0];
+    private int[] cubeZ = new int[0];
+    private double[] positionX = new double[0];
+    private double[] positionY = new double[0];
+    private double[] positionZ = new double[0];
+    //the hash values of the 4 columns (x, y), (x, y+1), (x+1, y) and (x+1, y+1) of the unit cubes,
+    //the hash value of a corner is the hash of its z coordinate plus the hash value of its column
+    private int[][] columnHashes = new int[4][0];
+    //the gradients of the current corner
+    private double[] gradientX = new double[0];
+    private double[] gradientY = new double[0];
+    private double[] gradientZ = new double[0];
+    //the dot products of the gradients of the 8 corners and the distance vectors,
+    //in the order used by HashFunction.hash(x, y, z, result)
+    private double[][] dotProducts = new double[8][0];
+    //the perlin noise values
+    private double[] values = new double[0];
+
+    //constructor
+    public VectorPerlinEvaluator(PerlinNoise noise) {
+        this.repeat = noise.getRepeat();
+        this.table = noise.getHashFunction().getTable();
+    }
+
+    //this function returns the evaluator of the current thread for the given noise, it must not be used by two
+    //calculations at the same time
+    //if the thread used it for another noise before, it is switched to the given noise
+    public static VectorPerlinEvaluator get(PerlinNoise noise) {
+        VectorPerlinEvaluator evaluator = instances.get();
+        if(evaluator == null) {
+            evaluator = new VectorPerlinEvaluator(noise);
+            instances.set(evaluator);
+        } else {
+            evaluator.repeat = noise.getRepeat();
+            evaluator.table = noise.getHashFunction().getTable();
+        }
+        return evaluator;
+    }
+
+    //this function calculates the perlin noise values for a batch of coordinates and writes them into results
+    public void perlin(double[] x, double[] y, double[] z, double[] results, int count) {
+        //the number of coordinates rounded up to whole vectors
+        int length = (count + LANES - 1) / LANES * LANES;
+        ensureLength(length);
+        for(int k = 0; k < count; k++) {
+            setCoordinate(k, x[k], y[k], z[k]);
+        }
+        //the lanes of the last vector without a coordinate are calculated for the point (0, 0, 0),
+        //their results are not used
+        for(int k = count; k < length; k++) {
+            setCoordinate(k, 0, 0, 0);
+        }
+        for(int column = 0; column < 4; column++) {
+            hashColumn(column, length);
+        }
+        for(int corner = 0; corner < 8; corner++) {
+            setGradients(corner, length);
+            calculateDotProducts(corner, length);
+        }
+        interpolate(length);
+        System.arraycopy(values, 0, results, 0, count);
+    }
+
+    //this function makes sure the arrays of the batch have at least the given length
+    private void ensureLength(int length) {
+        if(values.length < length) {
+            cubeX = new int[length];
+            cubeY = new int[length];
+            cubeZ = new int[length];
+            positionX = new double[length];
+            positionY = new double[length];
+            positionZ = new double[length];
+            columnHashes = new int[4][length];
+            gradientX = new double[length];
+            gradientY = new double[length];
+            gradientZ = new double[length];
+            dotProducts = new double[8][length];
+            values = new double[length];
+        }
+    }
+
+    //this function calculates the unit cube of a coordinate and its position within the cube the same way as
+    //PerlinRowEvaluator and stores them at index k
+    private void setCoordinate(int k, double x, double y, double z) {
+        if (repeat > 0) {
+            x = x % repeat;
+            y = y % repeat;
+            z = z % repeat;
+        }
+        int xi = (int) x;
+        int yi = (int) y;
+        int zi = (int) z;
+        cubeX[k] = HashFunction.reduce(xi);
+        cubeY[k] = HashFunction.reduce(yi);
+        cubeZ[k] = HashFunction.reduce(zi);
+        positionX[k] = x - xi;
+        positionY[k] = y - yi;
+        positionZ[k] = z - zi;
+    }
+
+    //this function calculates the hash values of a column of the unit cubes, the same way as
+    //HashFunction.hash(x, y, z, result), column 2 and 3 have the x coordinate + 1 and the odd columns the y coordinate + 1
+    private void hashColumn(int column, int length) {
+        int xOffset = column >> 1;
+        int yOffset = column & 1;
+        int[] result = columnHashes[column];
+        for(int k = 0; k < length; k++) {
+            result[k] = table[(cubeY[k] + yOffset + table[(cubeX[k] + xOffset) & 511]) & 511];
+        }
+    }
+
+    //this function looks up the gradients of a corner of the unit cubes, which are selected by its hash values
+    //the corners are numbered like in HashFunction.hash(x, y, z, result), corner 4 to 7 have the x coordinate + 1,
+    //corner 2, 3, 6 and 7 the z coordinate + 1 and the odd corners the y coordinate + 1
+    private void setGradients(int corner, int length) {
+        int zOffset = (corner >> 1) & 1;
+        int[] column = columnHashes[(corner >> 2) * 2 + (corner & 1)];
+        for(int k = 0; k < length; k++) {
+            int h = table[(cubeZ[k] + zOffset + column[k]) & 511] & 0xF;
+            gradientX[k] = PerlinRowEvaluator.GRADIENT_X[h];
+            gradientY[k] = PerlinRowEvaluator.GRADIENT_Y[h];
+            gradientZ[k] = PerlinRowEvaluator.GRADIENT_Z[h];
+        }
+    }
+
+    //this function calculates the dot products of the gradients of a corner and the distance vectors
+    private void calculateDotProducts(int corner, int length) {
+        int xOffset = corner >> 2;
+        int yOffset = corner & 1;
+        int zOffset = (corner >> 1) & 1;
+        double[] result = dotProducts[corner];
+        for(int i = 0; i < length; i += LANES) {
+            //the distance vector from the corner to the coordinate
+            DoubleVector dx = DoubleVector.fromArray(SPECIES, positionX, i).sub(xOffset);
+            DoubleVector dy = DoubleVector.fromArray(SPECIES, positionY, i).sub(yOffset);
+            DoubleVector dz = DoubleVector.fromArray(SPECIES, positionZ, i).sub(zOffset);
+            DoubleVector.fromArray(SPECIES, gradientX, i).mul(dx)
+                    .add(DoubleVector.fromArray(SPECIES, gradientY, i).mul(dy))
+                    .add(DoubleVector.fromArray(SPECIES, gradientZ, i).mul(dz)).intoArray(result, i);
+        }
+    }
+
+    //this function interpolates between the dot products of the corners using the faded positions
+    //and writes the perlin noise values into values
+    //the positions are faded using the same polynomial as Point.fadeValue, a + t * (b - a) interpolates between a and b
+    private void interpolate(int length) {
+        for(int i = 0; i < length; i += LANES) {
+            DoubleVector xf = DoubleVector.fromArray(SPECIES, positionX, i);
+            DoubleVector yf = DoubleVector.fromArray(SPECIES, positionY, i);
+            DoubleVector zf = DoubleVector.fromArray(SPECIES, positionZ, i);
+            DoubleVector u = xf.mul(xf).mul(xf).mul(xf.mul(xf.mul(6).sub(15)).add(10));
+            DoubleVector v = yf.mul(yf).mul(yf).mul(yf.mul(yf.mul(6).sub(15)).add(10));
+            DoubleVector w = zf.mul(zf).mul(zf).mul(zf.mul(zf.mul(6).sub(15)).add(10));
+            DoubleVector a = DoubleVector.fromArray(SPECIES, dotProducts[0], i);
+            DoubleVector b = DoubleVector.fromArray(SPECIES, dotProducts[4], i);
+            DoubleVector x1 = a.add(u.mul(b.sub(a)));
+            a = DoubleVector.fromArray(SPECIES, dotProducts[1], i);
+            b = DoubleVector.fromArray(SPECIES, dotProducts[5], i);
+            DoubleVector x2 = a.add(u.mul(b.sub(a)));
+            DoubleVector y1 = x1.add(v.mul(x2.sub(x1)));
+            a = DoubleVector.fromArray(SPECIES, dotProducts[2], i);
+            b = DoubleVector.fromArray(SPECIES, dotProducts[6], i);
+            x1 = a.add(u.mul(b.sub(a)));
+            a = DoubleVector.fromArray(SPECIES, dotProducts[3], i);
+            b = DoubleVector.fromArray(SPECIES, dotProducts[7], i);
+            x2 = a.add(u.mul(b.sub(a)));
+            DoubleVector y2 = x1.add(v.mul(x2.sub(x1)));
+            y1.add(w.mul(y2.sub(y1))).add(1).div(2).intoArray(values, i);
+        }
+    }
+}
@@ -0,0 +1,66 @@
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+public class VectorPerlinTest {
+
+    //this class checks that the batch function of the perlin noise gives the same values as perlin(x, y, z),
+    //with PerlinRowEvaluator and with VectorPerlinEvaluator
+    //the values are compared with a small tolerance, the textures must not depend on the evaluator used
+    //the batches have random lengths, so the last vector of VectorPerlinEvaluator is often only partly used,
+    //and the coordinates are also negative and larger than the repeat of the noise
+
+    //the number of batches and the highest number of coordinates in a batch
+    private static final int BATCHES = 200;
+    private static final int MAX_COUNT = 300;
+    //the largest difference allowed between two values
+    private static final double TOLERANCE = 1e-12;
+
+    @Test
+    public void rowEvaluatorMatchesSingleValues() {
+        assertBatchMatchesSingleValues(false, 24);
+        assertBatchMatchesSingleValues(false, 0);
+    }
+
+    @Test
+    public void vectorEvaluatorMatchesSingleValues() {
+        assumeTrue(VectorSupport.isAvailable(), "the vector api is not available");
+        assertBatchMatchesSingleValues(true, 24);
+        assertBatchMatchesSingleValues(true, 0);
+    }
+
+    //this function calculates batches of perlin noise values and compares them with perlin(x, y, z)
+    private void assertBatchMatchesSingleValues(boolean vectorEvaluator, int repeat) {
+        PerlinNoise noise = new PerlinNoise(repeat, 7);
+        noise.setVectorEvaluator(vectorEvaluator);
+        SplittableRandom random = new SplittableRandom(1);
+        double[] x = new double[MAX_COUNT];
+        double[] y = new double[MAX_COUNT];
+        double[] z = new double[MAX_COUNT];
+        double[] results = new double[MAX_COUNT];
+        for(int batch = 0; batch < BATCHES; batch++) {
+            int count = 1 + random.nextInt(MAX_COUNT);
+            //every second batch is a row of neighbouring coordinates like the pixels of a texture
+            for(int i = 0; i < count; i++) {
+                if(batch % 2 == 0 || i == 0) {
+                    x[i] = random.nextDouble(-30, 30);
+                    y[i] = random.nextDouble(-30, 30);
+                    z[i] = random.nextDouble(-30, 30);
+                } else {
+                    x[i] = x[i - 1] + random.nextDouble(0.05);
+                    y[i] = y[i - 1];
+                    z[i] = z[i - 1];
+                }
+            }
+            noise.perlin(x, y, z, results, count);
+            for(int i = 0; i < count; i++) {
+                assertEquals(noise.perlin(x[i], y[i], z[i]), results[i], TOLERANCE,
+                        "perlin value " + i + " of batch " + batch + " with vector evaluator " + vectorEvaluator
+                                + " and repeat " + repeat);
+            }
+        }
+    }
+}
@@ -0,0 +1,88 @@
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HashMap;
+import java.util.Map;
+
+public class Benchmark {
+
+    //this class contains the functions used by the render benchmarks, which check the textures against golden checksums
+    //the throughput of the noise functions and the generators is measured by the JMH benchmarks in the benchmarks modules
+
+    //this function resets the highest memory usage of the heap, so getPeakHeapBytes() only includes what happens afterwards
+    public static void resetPeakHeap() {
+        System.gc();
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if(pool.getType() == MemoryType.HEAP) {
+                pool.resetPeakUsage();
+            }
+        }
+    }
+
+    //this function returns the highest memory usage of the heap since the last reset
+    //it adds up the highest usage of every part of the heap, which can be a bit more than the highest usage of the whole heap
+    public static long getPeakHeapBytes() {
+        long bytes = 0;
+        for(MemoryPoolMXBean pool : ManagementFactory.getMemoryPoolMXBeans()) {
+            if(pool.getType() == MemoryType.HEAP) {
+                bytes += pool.getPeakUsage().getUsed();
+            }
+        }
+        return bytes;
+    }
+
+    //this function calculates a checksum of the pixels of an image, the SHA-256 hash of the colors as hexadecimal number
+    public static String checksum(int[] pixels) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            ByteBuffer buffer = ByteBuffer.allocate(4096 * 4);
+            for(int i = 0; i < pixels.length; i += 4096) {
+                buffer.clear();
+                buffer.asIntBuffer().put(pixels, i, Math.min(4096, pixels.length - i));
+                digest.update(buffer.array(), 0, 4 * Math.min(4096, pixels.length - i));
+            }
+            StringBuilder checksum = new StringBuilder();
+            for(byte b : digest.digest()) {
+                checksum.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return checksum.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    //this function reads arguments of the form name=value
+    public static Map<String, String> parseArguments(String[] args) {
+        Map<String, String> arguments = new HashMap<>();
+        for(String argument : args) {
+            int split = argument.indexOf('=');
+            if(split < 0) {
+                throw new IllegalArgumentException("expected name=value but got " + argument);
+            }
+            arguments.put(argument.substring(0, split), argument.substring(split + 1));
+        }
+        return arguments;
+    }
+
+    //this function reads a list of values separated by commas
+    public static int[] parseInts(String values) {
+        String[] fields = values.split(",");
+        int[] result = new int[fields.length];
+        for(int i = 0; i < fields.length; i++) {
+            result[i] = Integer.parseInt(fields[i].trim());
+        }
+        return result;
+    }
+
+    public static double[] parseDoubles(String values) {
+        String[] fields = values.split(",");
+        double[] result = new double[fields.length];
+        for(int i = 0; i < fields.length; i++) {
+            result[i] = Double.parseDouble(fields[i].trim());
+        }
+        return result;
+    }
+}
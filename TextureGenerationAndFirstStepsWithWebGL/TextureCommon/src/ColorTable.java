@@ -0,0 +1,46 @@
+import java.util.function.DoubleToIntFunction;
+
+public class ColorTable {
+
+    //this class stores a color gradient as a table of packed rgb values
+    //the gradient is calculated once for evenly spaced noise values in [0;1]
+    //afterwards mapping a noise value to a color is a single array access
+
+    //the default number of entries, small enough to stay in the cache
+    public static final int DEFAULT_SIZE = 4096;
+
+    //the packed rgb values
+    private int[] colors;
+    //the factor used to get from a noise value to an entry
+    private double scale;
+
+    //constructors, the gradient returns the packed rgb value for a noise value
+    public ColorTable(DoubleToIntFunction gradient) {
+        this(gradient, DEFAULT_SIZE);
+    }
+
+    public ColorTable(DoubleToIntFunction gradient, int size) {
+        this.colors = new int[size];
+        this.scale = size - 1;
+        for(int i = 0; i < size; i++) {
+            colors[i] = gradient.applyAsInt(i / scale);
+        }
+    }
+
+    //this function returns the packed rgb value for a noise value
+    //values outside of [0;1] get the color of the closest end of the gradient
+    public int getColor(double noiseValue) {
+        int i = (int) (noiseValue * scale + 0.5);
+        if(i < 0) {
+            i = 0;
+        } else if(i >= colors.length) {
+            i = colors.length - 1;
+        }
+        return colors[i];
+    }
+
+    //this function packs the r, g and b value into a single integer as used by BufferedImage.TYPE_INT_RGB
+    public static int pack(int r, int g, int b) {
+        return (r << 16) | (g << 8) | b;
+    }
+}
@@ -0,0 +1,56 @@
+public enum CubeMapFace {
+    //used to define the faces of a cube map, the faces and their orientation are the same as in OpenGL and WebGL,
+    //so they can be uploaded as TEXTURE_CUBE_MAP_POSITIVE_X + ordinal()
+    //every pixel of a face is mapped to the direction from the center of the cube to the pixel,
+    //s goes from -1 to 1 from the left to the right column and t from -1 to 1 from the top to the bottom row
+    POSITIVE_X("posx", 1, 0, 0, 0, 0, -1, 0, -1, 0),
+    NEGATIVE_X("negx", -1, 0, 0, 0, 0, 1, 0, -1, 0),
+    POSITIVE_Y("posy", 0, 1, 0, 1, 0, 0, 0, 0, 1),
+    NEGATIVE_Y("negy", 0, -1, 0, 1, 0, 0, 0, 0, -1),
+    POSITIVE_Z("posz", 0, 0, 1, 1, 0, 0, 0, -1, 0),
+    NEGATIVE_Z("negz", 0, 0, -1, -1, 0, 0, 0, -1, 0);
+
+    //the name of the face, used in the file names of the faces
+    private final String name;
+    //the direction is axis + s * sAxis + t * tAxis
+    private final int axisX, axisY, axisZ;
+    private final int sAxisX, sAxisY, sAxisZ;
+    private final int tAxisX, tAxisY, tAxisZ;
+
+    CubeMapFace(String name, int axisX, int axisY, int axisZ, int sAxisX, int sAxisY, int sAxisZ,
+                int tAxisX, int tAxisY, int tAxisZ) {
+        this.name = name;
+        this.axisX = axisX;
+        this.axisY = axisY;
+        this.axisZ = axisZ;
+        this.sAxisX = sAxisX;
+        this.sAxisY = sAxisY;
+        this.sAxisZ = sAxisZ;
+        this.tAxisX = tAxisX;
+        this.tAxisY = tAxisY;
+        this.tAxisZ = tAxisZ;
+    }
+
+    //Getter for the name of the face
+    public String getName() {
+        return name;
+    }
+
+    //this function calculates the coordinate s or t of the center of pixel i of a face with size pixels per row
+    public static double getFaceCoordinate(int i, int size) {
+        return 2 * (i + 0.5) / size - 1;
+    }
+
+    //these functions calculate the direction to the point (s, t) of the face, the direction is not normalized
+    public double getX(double s, double t) {
+        return axisX + s * sAxisX + t * tAxisX;
+    }
+
+    public double getY(double s, double t) {
+        return axisY + s * sAxisY + t * tAxisY;
+    }
+
+    public double getZ(double s, double t) {
+        return axisZ + s * sAxisZ + t * tAxisZ;
+    }
+}
@@ -0,0 +1,66 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+public class GoldenChecksums {
+
+    //this class stores the checksums of textures created with fixed parameters and seeds
+    //they are used to make sure that changes to the code do not change the textures
+    //the file has one line per texture, with a description of the parameters and the checksum separated by a space
+
+    //the file the checksums are read from and written to
+    private File file;
+    //whether missing checksums are added
+    private boolean recording;
+    //the checksums, ordered by the description of the parameters
+    private Map<String, String> checksums = new TreeMap<>();
+
+    //constructor, reads the checksums if the file exists
+    public GoldenChecksums(File file, boolean recording) {
+        this.file = file;
+        this.recording = recording;
+        if(file.isFile()) {
+            try {
+                for(String line : Files.readAllLines(file.toPath())) {
+                    int split = line.lastIndexOf(' ');
+                    if(split > 0) {
+                        checksums.put(line.substring(0, split), line.substring(split + 1));
+                    }
+                }
+            } catch (IOException e) {
+                throw new RuntimeException(e);
+            }
+        }
+    }
+
+    //this function compares the checksum of a texture with the stored one and returns the result
+    //if there is no stored checksum and missing checksums are added, the checksum is stored
+    public String check(String parameters, String checksum) {
+        String expected = checksums.get(parameters);
+        if(expected == null) {
+            if(!recording) {
+                return "no golden";
+            }
+            checksums.put(parameters, checksum);
+            return "recorded";
+        }
+        return expected.equals(checksum) ? "ok" : "MISMATCH";
+    }
+
+    //this function writes the checksums to the file
+    public void save() {
+        List<String> lines = new ArrayList<>();
+        for(Map.Entry<String, String> entry : checksums.entrySet()) {
+            lines.add(entry.getKey() + " " + entry.getValue());
+        }
+        try {
+            Files.write(file.toPath(), lines);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+public interface NoiseSource {
+
+    //this interface is implemented by all noise functions, so the generators can use any of them
+    //the noise values are in [0;1], the same coordinates always result in the same value
+
+    //this function calculates and returns the noise value at the given coordinates
+    double getValueAt(double x, double y, double z);
+
+    //this function calculates the noise values for a batch of coordinates, for example a row of the image
+    //the results are written into results[0] to results[count-1]
+    //the values are the same as the ones returned by getValueAt
+    void getValuesAt(double[] x, double[] y, double[] z, double[] results, int count);
+
+    //this function returns a description of the noise function and all its parameters
+    //noise functions with the same description always return the same values, it is used for the keys of the texture cache
+    String getParameters();
+}
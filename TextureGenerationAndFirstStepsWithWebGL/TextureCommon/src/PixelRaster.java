@@ -0,0 +1,65 @@
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+
+public class PixelRaster {
+
+    //this class gives direct access to the pixels of an image of type BufferedImage.TYPE_INT_RGB
+    //the pixels are stored row by row in a single int array, so the color values of a whole row
+    //can be copied into the image at once, without the color conversion and checks done by setRGB
+    //it can also hold just a band of rows of a larger image, this is used when writing the image while it is created
+
+    //the pixels of the image, row by row
+    private int[] pixels;
+    //the width of the image in pixels
+    private int width;
+    //the number of rows stored
+    private int rows;
+    //the row of the image stored in the first row of pixels
+    private int firstRow = 0;
+
+    //constructor, the image has to be of type BufferedImage.TYPE_INT_RGB
+    public PixelRaster(BufferedImage image) {
+        this.pixels = ((DataBufferInt) image.getRaster().getDataBuffer()).getData();
+        this.width = image.getWidth();
+        this.rows = image.getHeight();
+    }
+
+    //constructor for a band of rows of an image, not backed by a BufferedImage
+    public PixelRaster(int width, int rows) {
+        this.pixels = new int[width * rows];
+        this.width = width;
+        this.rows = rows;
+    }
+
+    //this function copies the colors of count pixels of row y, starting at xStart, into the image
+    public void setRow(int y, int xStart, int[] colors, int count) {
+        System.arraycopy(colors, 0, pixels, (y - firstRow) * width + xStart, count);
+    }
+
+    //this function sets the color of a single pixel
+    public void setPixel(int x, int y, int color) {
+        pixels[(y - firstRow) * width + x] = color;
+    }
+
+    //this function sets the row of the image stored in the first row of pixels
+    public void setFirstRow(int firstRow) {
+        this.firstRow = firstRow;
+    }
+
+    //Getters
+    public int getWidth() {
+        return width;
+    }
+
+    public int getRows() {
+        return rows;
+    }
+
+    public int getFirstRow() {
+        return firstRow;
+    }
+
+    public int[] getPixels() {
+        return pixels;
+    }
+}
@@ -0,0 +1,188 @@
+import java.util.Arrays;
+import java.util.zip.Adler32;
+import java.util.zip.Deflater;
+
+public class PngBlock {
+
+    //this class compresses a block of rows of a png image independently of all other blocks
+    //this allows compressing the blocks of an image on several threads at the same time
+    //every block is a part of a single deflate stream: all blocks but the last end on a byte boundary
+    //without ending the stream, so the compressed blocks can simply be written one after another
+    //the checksum of the whole image is calculated from the checksums of the blocks
+
+    //the filter types of the png format
+    private static final int FILTER_NONE = 0;
+    private static final int FILTER_SUB = 1;
+    private static final int FILTER_UP = 2;
+    private static final int FILTER_AVERAGE = 3;
+    private static final int FILTER_PAETH = 4;
+    //the number of bytes per pixel
+    private static final int BYTES_PER_PIXEL = 3;
+    //the modulus used by the adler-32 checksum
+    private static final int ADLER_BASE = 65521;
+
+    //the compressed data
+    private byte[] data;
+    private int length;
+    //the adler-32 checksum and the size of the uncompressed data
+    private int checksum;
+    private long uncompressedLength;
+
+    //this function filters and compresses rows of packed rgb values, starting with the pixel at offset
+    //the row before the block is needed for the filters, previousOffset is -1 for the first row of the image
+    //last has to be true for the last block of the image
+    public static PngBlock compress(int[] pixels, int offset, int rows, int width,
+                                    int[] previousPixels, int previousOffset, boolean last) {
+        int rowLength = 1 + BYTES_PER_PIXEL * width;
+        byte[] filtered = new byte[rows * rowLength];
+        byte[] previous = new byte[BYTES_PER_PIXEL * width];
+        byte[] current = new byte[BYTES_PER_PIXEL * width];
+        //scratch row used to try out the filters
+        byte[] candidate = new byte[BYTES_PER_PIXEL * width];
+        if (previousOffset >= 0) {
+            toBytes(previousPixels, previousOffset, width, previous);
+        }
+        for (int r = 0; r < rows; r++) {
+            toBytes(pixels, offset + r * width, width, current);
+            filterRow(current, previous, filtered, r * rowLength, candidate);
+            byte[] swap = previous;
+            previous = current;
+            current = swap;
+        }
+
+        PngBlock block = new PngBlock();
+        Adler32 adler = new Adler32();
+        adler.update(filtered);
+        block.checksum = (int) adler.getValue();
+        block.uncompressedLength = filtered.length;
+
+        //raw deflate data, the zlib header and checksum are written by the png writer
+        Deflater deflater = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        deflater.setInput(filtered);
+        if (last) {
+            deflater.finish();
+        }
+        block.data = new byte[filtered.length / 4 + 64];
+        block.length = 0;
+        while (true) {
+            if (block.length == block.data.length) {
+                block.data = Arrays.copyOf(block.data, block.data.length * 2);
+            }
+            int n = deflater.deflate(block.data, block.length, block.data.length - block.length,
+                    last ? Deflater.NO_FLUSH : Deflater.SYNC_FLUSH);
+            block.length += n;
+            //the block is complete once the deflater stopped filling the whole output space
+            if (last ? deflater.finished() : block.length < block.data.length) {
+                break;
+            }
+        }
+        deflater.end();
+        return block;
+    }
+
+    //this function converts a row of packed rgb values into bytes
+    private static void toBytes(int[] pixels, int offset, int width, byte[] row) {
+        for (int x = 0; x < width; x++) {
+            int col = pixels[offset + x];
+            row[3 * x] = (byte) (col >> 16);
+            row[3 * x + 1] = (byte) (col >> 8);
+            row[3 * x + 2] = (byte) col;
+        }
+    }
+
+    //this function writes a filtered row into target, preceded by the filter type
+    //every filter is tried and the one with the smallest sum of absolute values is chosen,
+    //as recommended by the png specification
+    private static void filterRow(byte[] row, byte[] previous, byte[] target, int targetOffset, byte[] candidate) {
+        int bestFilter = FILTER_NONE;
+        long bestSum = Long.MAX_VALUE;
+        for (int filter = FILTER_NONE; filter <= FILTER_PAETH; filter++) {
+            long sum = applyFilter(filter, row, previous, candidate);
+            if (sum < bestSum) {
+                bestSum = sum;
+                bestFilter = filter;
+                System.arraycopy(candidate, 0, target, targetOffset + 1, row.length);
+            }
+        }
+        target[targetOffset] = (byte) bestFilter;
+    }
+
+    //this function applies a filter to a row and returns the sum of the absolute values of the result
+    //the first pixel has no left neighbour, its left values count as 0
+    private static long applyFilter(int filter, byte[] row, byte[] previous, byte[] result) {
+        switch (filter) {
+            case FILTER_SUB -> {
+                for (int i = 0; i < row.length; i++) {
+                    int a = i >= BYTES_PER_PIXEL ? row[i - BYTES_PER_PIXEL] & 0xFF : 0;
+                    result[i] = (byte) ((row[i] & 0xFF) - a);
+                }
+            }
+            case FILTER_UP -> {
+                for (int i = 0; i < row.length; i++) {
+                    result[i] = (byte) ((row[i] & 0xFF) - (previous[i] & 0xFF));
+                }
+            }
+            case FILTER_AVERAGE -> {
+                for (int i = 0; i < row.length; i++) {
+                    int a = i >= BYTES_PER_PIXEL ? row[i - BYTES_PER_PIXEL] & 0xFF : 0;
+                    result[i] = (byte) ((row[i] & 0xFF) - ((a + (previous[i] & 0xFF)) >> 1));
+                }
+            }
+            case FILTER_PAETH -> {
+                for (int i = 0; i < row.length; i++) {
+                    int a = i >= BYTES_PER_PIXEL ? row[i - BYTES_PER_PIXEL] & 0xFF : 0;
+                    int c = i >= BYTES_PER_PIXEL ? previous[i - BYTES_PER_PIXEL] & 0xFF : 0;
+                    result[i] = (byte) ((row[i] & 0xFF) - paeth(a, previous[i] & 0xFF, c));
+                }
+            }
+            default -> System.arraycopy(row, 0, result, 0, row.length);
+        }
+        long sum = 0;
+        for (int i = 0; i < row.length; i++) {
+            sum += Math.abs(result[i]);
+        }
+        return sum;
+    }
+
+    //the paeth predictor of the png specification
+    private static int paeth(int a, int b, int c) {
+        int p = a + b - c;
+        int pa = Math.abs(p - a);
+        int pb = Math.abs(p - b);
+        int pc = Math.abs(p - c);
+        if (pa <= pb && pa <= pc) {
+            return a;
+        }
+        return pb <= pc ? b : c;
+    }
+
+    //this function combines the adler-32 checksum of some data with the checksum of the data following it
+    //it works like adler32_combine of zlib
+    public static int combineChecksums(int first, int second, long secondLength) {
+        long remainder = secondLength % ADLER_BASE;
+        long sum1 = first & 0xFFFF;
+        long sum2 = (remainder * sum1) % ADLER_BASE;
+        sum1 += (second & 0xFFFF) + ADLER_BASE - 1;
+        sum2 += ((first >>> 16) & 0xFFFF) + ((second >>> 16) & 0xFFFF) + ADLER_BASE - remainder;
+        sum1 %= ADLER_BASE;
+        sum2 %= ADLER_BASE;
+        return (int) (sum1 | (sum2 << 16));
+    }
+
+    //Getters
+    public byte[] getData() {
+        return data;
+    }
+
+    public int getLength() {
+        return length;
+    }
+
+    public int getChecksum() {
+        return checksum;
+    }
+
+    public long getUncompressedLength() {
+        return uncompressedLength;
+    }
+}
@@ -0,0 +1,224 @@
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.zip.CRC32;
+
+public class PngWriter implements AutoCloseable {
+
+    //this class writes an rgb image as png file row by row
+    //the rows are compressed and written as soon as they are given to the writer, so the whole image
+    //never has to be in memory at once
+    //the rows are split into blocks that are filtered and compressed independently, see PngBlock,
+    //if a pool is given these blocks are compressed on all of its threads
+
+    //the first bytes of every png file
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+    //the size of the IDAT chunks
+    private static final int CHUNK_SIZE = 1 << 16;
+    //the approximate number of uncompressed bytes in a block
+    private static final int BLOCK_SIZE = 1 << 18;
+
+    //the stream the file is written to
+    private OutputStream out;
+    //the file written, null if the writer was given a stream, it is deleted if the image is not finished
+    private File file;
+    //the size of the image in pixels
+    private int width;
+    private int height;
+    //the number of rows in a block
+    private int blockRows;
+    //the number of rows written so far
+    private int rowsWritten = 0;
+    //the last row written, needed to filter the next row
+    private int[] previousRow;
+
+    //the compressed data is collected in chunk until it is full
+    private byte[] chunk = new byte[CHUNK_SIZE];
+    private int chunkLength = 0;
+    //the adler-32 checksum of all rows written so far
+    private int checksum = 1;
+
+    //constructor, writes the header of the image to the stream, the stream is closed by close
+    public PngWriter(OutputStream out, int width, int height) throws IOException {
+        this(out, width, height, null);
+    }
+
+    //constructor, creates the file and writes the header of the image
+    //if close is called before all rows were written, the file is deleted
+    public PngWriter(File file, int width, int height) throws IOException {
+        this(open(file, width, height), width, height, file);
+    }
+
+    //constructor used by the public constructors, file is null if the image is only written to a stream
+    private PngWriter(OutputStream out, int width, int height, File file) throws IOException {
+        this.out = out;
+        this.file = file;
+        this.width = width;
+        this.height = height;
+        try {
+            checkSize(width, height);
+            this.blockRows = Math.max(1, BLOCK_SIZE / (1 + 3 * width));
+            this.previousRow = new int[width];
+            out.write(SIGNATURE);
+            byte[] header = new byte[13];
+            writeInt(header, 0, width);
+            writeInt(header, 4, height);
+            //bit depth 8, color type 2 (rgb), default compression and filter method, no interlacing
+            header[8] = 8;
+            header[9] = 2;
+            writeChunk("IHDR", header, 13);
+            //zlib header: deflate with a 32K window and default compression
+            addToChunk(new byte[]{0x78, (byte) 0x9C}, 2);
+        } catch (IOException | RuntimeException e) {
+            discard(e);
+            throw e;
+        }
+    }
+
+    //this function writes a whole image given as packed rgb values into a file
+    //the blocks are compressed on the threads of the pool
+    public static void write(int[] pixels, int width, int height, File file, ForkJoinPool pool) {
+        try (PngWriter writer = new PngWriter(file, width, height)) {
+            writer.writeRows(pixels, 0, height, pool);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    //this function writes rows of packed rgb values, starting with the pixel at offset
+    //the rows are compressed on the calling thread
+    public void writeRows(int[] pixels, int offset, int rows) throws IOException {
+        writeRows(pixels, offset, rows, null);
+    }
+
+    //this function writes rows of packed rgb values, starting with the pixel at offset
+    //the blocks are compressed on the threads of the pool, or on the calling thread if pool is null
+    public void writeRows(int[] pixels, int offset, int rows, ForkJoinPool pool) throws IOException {
+        if (rowsWritten + rows > height) {
+            throw new IllegalStateException("the image only has " + height + " rows");
+        }
+        //the row before the first row given, -1 if the first row is the first row of the image
+        int[] before = previousRow;
+        int beforeOffset = rowsWritten == 0 ? -1 : 0;
+        List<ForkJoinTask<PngBlock>> tasks = new ArrayList<>();
+        for (int r = 0; r < rows; r += blockRows) {
+            int[] blockBefore = r == 0 ? before : pixels;
+            int blockBeforeOffset = r == 0 ? beforeOffset : offset + (r - 1) * width;
+            int blockOffset = offset + r * width;
+            int count = Math.min(blockRows, rows - r);
+            boolean last = rowsWritten + r + count == height;
+            if (pool == null) {
+                writeBlock(PngBlock.compress(pixels, blockOffset, count, width, blockBefore, blockBeforeOffset, last));
+            } else {
+                tasks.add(pool.submit(() ->
+                        PngBlock.compress(pixels, blockOffset, count, width, blockBefore, blockBeforeOffset, last)));
+            }
+        }
+        //write the blocks in order as soon as they are finished
+        for (ForkJoinTask<PngBlock> task : tasks) {
+            writeBlock(task.join());
+        }
+        if (rows > 0) {
+            System.arraycopy(pixels, offset + (rows - 1) * width, previousRow, 0, width);
+        }
+        rowsWritten += rows;
+    }
+
+    //this function writes the checksum of the compressed data and the end of the file
+    //the stream is always closed, if not all rows were written the end is left out and the file is deleted,
+    //so an unfinished image is never mistaken for a finished one
+    @Override
+    public void close() throws IOException {
+        try {
+            if (rowsWritten != height) {
+                throw new IllegalStateException("only " + rowsWritten + " of " + height + " rows were written");
+            }
+            byte[] number = new byte[4];
+            writeInt(number, 0, checksum);
+            addToChunk(number, 4);
+            writeChunk("IDAT", chunk, chunkLength);
+            writeChunk("IEND", new byte[0], 0);
+            out.close();
+        } catch (IOException | RuntimeException e) {
+            discard(e);
+            throw e;
+        }
+    }
+
+    //this function checks the size of the image, a png image needs at least one row and one column
+    private static void checkSize(int width, int height) {
+        if (width <= 0 || height <= 0) {
+            throw new IllegalArgumentException("the size of the image has to be positive, not " + width + "x" + height);
+        }
+    }
+
+    //this function checks the size of the image and creates the file, so no file is created for an invalid size
+    private static OutputStream open(File file, int width, int height) throws IOException {
+        checkSize(width, height);
+        return new BufferedOutputStream(new FileOutputStream(file));
+    }
+
+    //this function closes the stream after an error and deletes the file if there is one
+    //errors while doing so are added to the error that caused it
+    private void discard(Exception cause) {
+        try {
+            out.close();
+        } catch (IOException e) {
+            cause.addSuppressed(e);
+        }
+        if (file != null && !file.delete() && file.exists()) {
+            cause.addSuppressed(new IOException("could not delete the unfinished image " + file));
+        }
+    }
+
+    //this function adds a compressed block to the data and updates the checksum
+    private void writeBlock(PngBlock block) throws IOException {
+        addToChunk(block.getData(), block.getLength());
+        checksum = PngBlock.combineChecksums(checksum, block.getChecksum(), block.getUncompressedLength());
+    }
+
+    //this function adds compressed data to the current chunk and writes every chunk that is full
+    private void addToChunk(byte[] data, int length) throws IOException {
+        int position = 0;
+        while (position < length) {
+            int n = Math.min(length - position, chunk.length - chunkLength);
+            System.arraycopy(data, position, chunk, chunkLength, n);
+            chunkLength += n;
+            position += n;
+            if (chunkLength == chunk.length) {
+                writeChunk("IDAT", chunk, chunkLength);
+                chunkLength = 0;
+            }
+        }
+    }
+
+    //this function writes a chunk of the png file, consisting of its length, its type, the data and a checksum
+    private void writeChunk(String type, byte[] data, int length) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        byte[] number = new byte[4];
+        writeInt(number, 0, length);
+        out.write(number);
+        out.write(typeBytes);
+        out.write(data, 0, length);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data, 0, length);
+        writeInt(number, 0, (int) crc.getValue());
+        out.write(number);
+    }
+
+    //this function writes an integer into a byte array, most significant byte first
+    private static void writeInt(byte[] target, int offset, int value) {
+        target[offset] = (byte) (value >>> 24);
+        target[offset + 1] = (byte) (value >>> 16);
+        target[offset + 2] = (byte) (value >>> 8);
+        target[offset + 3] = (byte) value;
+    }
+}
@@ -0,0 +1,94 @@
+public class RowBuffers {
+
+    //this class stores the arrays used by the image generators to calculate the values and colors of a row of a tile
+    //every thread gets its own instance, which is used for all tiles the thread fills,
+    //so filling an image does not allocate memory for every row or tile
+
+    //the instance of every thread
+    private static final ThreadLocal<RowBuffers> instances = ThreadLocal.withInitial(RowBuffers::new);
+
+    //the points on the sphere of the row
+    private double[] xCoords = new double[0];
+    private double[] yCoords = new double[0];
+    private double[] zCoords = new double[0];
+    //the noise and turbulence values of the row
+    private double[] noiseValues = new double[0];
+    private double[] turbulenceValues = new double[0];
+    //the interpolated values of the row when sampling depending on the latitude
+    private double[] sampledValues = new double[0];
+    //the points and noise values of the current octave when calculating the turbulence
+    private double[] octaveX = new double[0];
+    private double[] octaveY = new double[0];
+    private double[] octaveZ = new double[0];
+    private double[] octaveValues = new double[0];
+    //the colors of the row
+    private int[] colors = new int[0];
+
+    //constructor, only used by instances
+    private RowBuffers() {}
+
+    //this function returns the instance of the current thread with arrays of at least the given length
+    //it must not be used by two rows at the same time
+    public static RowBuffers get(int length) {
+        RowBuffers buffers = instances.get();
+        if(buffers.colors.length < length) {
+            buffers.xCoords = new double[length];
+            buffers.yCoords = new double[length];
+            buffers.zCoords = new double[length];
+            buffers.noiseValues = new double[length];
+            buffers.turbulenceValues = new double[length];
+            buffers.sampledValues = new double[length];
+            buffers.octaveX = new double[length];
+            buffers.octaveY = new double[length];
+            buffers.octaveZ = new double[length];
+            buffers.octaveValues = new double[length];
+            buffers.colors = new int[length];
+        }
+        return buffers;
+    }
+
+    //Getters
+    public double[] getXCoords() {
+        return xCoords;
+    }
+
+    public double[] getYCoords() {
+        return yCoords;
+    }
+
+    public double[] getZCoords() {
+        return zCoords;
+    }
+
+    public double[] getNoiseValues() {
+        return noiseValues;
+    }
+
+    public double[] getTurbulenceValues() {
+        return turbulenceValues;
+    }
+
+    public double[] getSampledValues() {
+        return sampledValues;
+    }
+
+    public double[] getOctaveX() {
+        return octaveX;
+    }
+
+    public double[] getOctaveY() {
+        return octaveY;
+    }
+
+    public double[] getOctaveZ() {
+        return octaveZ;
+    }
+
+    public double[] getOctaveValues() {
+        return octaveValues;
+    }
+
+    public int[] getColors() {
+        return colors;
+    }
+}
@@ -0,0 +1,238 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.FloatBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.ShortBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ForkJoinPool;
+
+public class ScalarField {
+
+    //this class stores the value in [0;1] of every pixel of a texture, which the generators map to a color
+    //calculating the values is expensive, mapping them to colors is cheap, so a stored field can be turned
+    //into textures with different colors without calculating the noise again
+    //the values are stored row by row in a file that is mapped into memory, either as 16 bit integers or as floats
+    //the file starts with a header of 24 bytes: magic number, version, width, height, bits per value and an unused int,
+    //all numbers are little endian
+
+    //the values of the file format
+    private static final int FILE_MAGIC = 0x4E534346;
+    private static final int FILE_VERSION = 1;
+    private static final int FILE_HEADER_SIZE = 24;
+    //the edge length of the tiles recolored by a thread at once
+    private static final int RECOLOR_TILE_SIZE = 256;
+    //the number of rows recolored and written at once
+    private static final int RECOLOR_BAND_HEIGHT = 64;
+
+    //the size of the texture in pixels
+    private int width;
+    private int height;
+    //the number of bits per value, 16 or 32
+    private int bitsPerValue;
+    //the mapped values, only one of the buffers is used
+    private MappedByteBuffer data;
+    private ShortBuffer shortValues;
+    private FloatBuffer floatValues;
+
+    //constructor
+    private ScalarField(int width, int height, int bitsPerValue, MappedByteBuffer data) {
+        this.width = width;
+        this.height = height;
+        this.bitsPerValue = bitsPerValue;
+        this.data = data;
+        if(bitsPerValue == 16) {
+            this.shortValues = data.asShortBuffer();
+        } else {
+            this.floatValues = data.asFloatBuffer();
+        }
+    }
+
+    //this function creates a new field in the given file, an existing file is replaced
+    //16 bits per value result in half the size, the values are rounded to multiples of 1/65535
+    public static ScalarField create(File file, int width, int height, int bitsPerValue) {
+        if(bitsPerValue != 16 && bitsPerValue != 32) {
+            throw new IllegalArgumentException("bitsPerValue has to be 16 or 32");
+        }
+        long size = (long) width * height * (bitsPerValue / 8);
+        if(width <= 0 || height <= 0 || size > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("a field of " + width + "x" + height + " pixels can not be mapped");
+        }
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            header.putInt(FILE_MAGIC).putInt(FILE_VERSION).putInt(width).putInt(height).putInt(bitsPerValue).putInt(0);
+            header.flip();
+            while(header.hasRemaining()) {
+                channel.write(header);
+            }
+            //the mapping stays valid after closing the channel
+            return new ScalarField(width, height, bitsPerValue, map(channel, FileChannel.MapMode.READ_WRITE, size));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    //this function loads a field from a file created by create(), the file is mapped into memory and not copied
+    public static ScalarField load(File file) {
+        try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+            if(channel.size() < FILE_HEADER_SIZE) {
+                throw new IllegalArgumentException(file + " is not a scalar field file");
+            }
+            ByteBuffer header = ByteBuffer.allocate(FILE_HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+            while(header.hasRemaining() && channel.read(header, header.position()) >= 0) {
+                //read until the header is complete
+            }
+            header.flip();
+            if(header.getInt() != FILE_MAGIC || header.getInt() != FILE_VERSION) {
+                throw new IllegalArgumentException(file + " is not a scalar field file");
+            }
+            int width = header.getInt();
+            int height = header.getInt();
+            int bitsPerValue = header.getInt();
+            long size = (long) width * height * (bitsPerValue / 8);
+            if((bitsPerValue != 16 && bitsPerValue != 32) || channel.size() < FILE_HEADER_SIZE + size) {
+                throw new IllegalArgumentException(file + " is not a complete scalar field file");
+            }
+            return new ScalarField(width, height, bitsPerValue, map(channel, FileChannel.MapMode.READ_ONLY, size));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    //this function maps the values of the file into memory
+    private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long size) throws IOException {
+        MappedByteBuffer buffer = channel.map(mode, FILE_HEADER_SIZE, size);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        return buffer;
+    }
+
+    //Getters
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getBitsPerValue() {
+        return bitsPerValue;
+    }
+
+    //this function writes count values into row y, starting at pixel xStart
+    //values outside of [0;1] are stored as the closest end of the interval
+    //different threads can write different parts of the field at the same time
+    public void setRow(int y, int xStart, double[] values, int count) {
+        int offset = y * width + xStart;
+        for(int k = 0; k < count; k++) {
+            double value = Math.min(1, Math.max(0, values[k]));
+            if(shortValues != null) {
+                shortValues.put(offset + k, (short) Math.round(value * 65535));
+            } else {
+                floatValues.put(offset + k, (float) value);
+            }
+        }
+    }
+
+    //this function reads count values of row y, starting at pixel xStart, into values
+    public void getRow(int y, int xStart, double[] values, int count) {
+        int offset = y * width + xStart;
+        for(int k = 0; k < count; k++) {
+            if(shortValues != null) {
+                values[k] = (shortValues.get(offset + k) & 0xFFFF) / 65535.0;
+            } else {
+                values[k] = floatValues.get(offset + k);
+            }
+        }
+    }
+
+    //this function returns the value of a single pixel
+    public double get(int x, int y) {
+        if(shortValues != null) {
+            return (shortValues.get(y * width + x) & 0xFFFF) / 65535.0;
+        }
+        return floatValues.get(y * width + x);
+    }
+
+    //this function writes the changed values to the file
+    public void flush() {
+        if(!data.isReadOnly()) {
+            data.force();
+        }
+    }
+
+    //this function maps the values to colors using every given color table and writes the image of every table into
+    //the file with the same index, the tiles are split between the threads of the pool
+    //every value is read once for all tables, the images are written in bands of RECOLOR_BAND_HEIGHT rows,
+    //so only one band of every image is in memory at once
+    public void recolor(ColorTable[] tables, File[] files, ForkJoinPool pool) {
+        if(files.length != tables.length) {
+            throw new IllegalArgumentException("every color table needs a file");
+        }
+        int bandHeight = Math.min(RECOLOR_BAND_HEIGHT, height);
+        int[][] bands = new int[tables.length][width * bandHeight];
+        PngWriter[] writers = new PngWriter[tables.length];
+        try {
+            for(int t = 0; t < tables.length; t++) {
+                writers[t] = new PngWriter(files[t], width, height);
+            }
+            for(int y = 0; y < height; y += bandHeight) {
+                int firstRow = y;
+                int rows = Math.min(bandHeight, height - y);
+                pool.invoke(new TileRenderTask(0, y, width, y + rows, RECOLOR_TILE_SIZE,
+                        (xStart, yStart, xEnd, yEnd) -> recolorRegion(tables, bands, firstRow, xStart, yStart, xEnd, yEnd)));
+                for(int t = 0; t < tables.length; t++) {
+                    writers[t].writeRows(bands[t], 0, rows, pool);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        } finally {
+            close(writers);
+        }
+    }
+
+    //this function maps the values of a part of the field to colors and stores them in the bands, which start at
+    //row firstRow, xEnd and yEnd are exclusive
+    private void recolorRegion(ColorTable[] tables, int[][] bands, int firstRow, int xStart, int yStart, int xEnd, int yEnd) {
+        int count = xEnd - xStart;
+        double[] values = new double[count];
+        for(int y = yStart; y < yEnd; y++) {
+            getRow(y, xStart, values, count);
+            int offset = (y - firstRow) * width + xStart;
+            for(int t = 0; t < tables.length; t++) {
+                ColorTable table = tables[t];
+                int[] band = bands[t];
+                for(int k = 0; k < count; k++) {
+                    band[offset + k] = table.getColor(values[k]);
+                }
+            }
+        }
+    }
+
+    //this function closes all writers that were created, even if closing one of them fails
+    //unfinished images are deleted by their writers, the first error is thrown after all writers were closed
+    private static void close(PngWriter[] writers) {
+        RuntimeException error = null;
+        for(PngWriter writer : writers) {
+            if(writer == null) {
+                continue;
+            }
+            try {
+                writer.close();
+            } catch (IOException e) {
+                if(error == null) {
+                    error = new RuntimeException(e);
+                } else {
+                    error.addSuppressed(e);
+                }
+            }
+        }
+        if(error != null) {
+            throw error;
+        }
+    }
+}
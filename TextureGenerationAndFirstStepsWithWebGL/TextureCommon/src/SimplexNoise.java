@@ -0,0 +1,151 @@
+import java.util.SplittableRandom;
+
+public class SimplexNoise implements NoiseSource {
+
+    //this class represents 3-dimensional simplex noise
+    //the space is split into tetrahedrons instead of cubes, so every noise value only uses the gradients of 4 corners
+    //instead of the 8 corners used by perlin noise and no interpolation is needed
+
+    //the factors used to skew a point into the grid of tetrahedrons and back
+    private static final double SKEW = 1.0 / 3.0;
+    private static final double UNSKEW = 1.0 / 6.0;
+
+    //the gradients selected by the hash values, the vectors from the center of a cube to the centers of its edges
+    //gradient h is (GRADIENT_X[h], GRADIENT_Y[h], GRADIENT_Z[h])
+    private static final double[] GRADIENT_X = {1, -1, 1, -1, 1, -1, 1, -1, 0, 0, 0, 0};
+    private static final double[] GRADIENT_Y = {1, 1, -1, -1, 0, 0, 0, 0, 1, -1, 1, -1};
+    private static final double[] GRADIENT_Z = {0, 0, 0, 0, 1, 1, -1, -1, 1, 1, -1, -1};
+
+    //the seed used to shuffle the permutation
+    private long seed;
+    //the factor the coordinates are multiplied with, a larger scale results in smaller structures
+    private double scale;
+    //the permutation of the numbers from 0 to 255 stored twice, so no modulo is needed when hashing
+    private int[] permutation = new int[512];
+    //the index of the gradient of every entry of the permutation
+    private int[] gradientIndex = new int[512];
+
+    //constructors, the same seed always results in the same noise
+    public SimplexNoise(long seed, double scale) {
+        this.seed = seed;
+        this.scale = scale;
+        int[] p = new int[256];
+        for(int i = 0; i < 256; i++) {
+            p[i] = i;
+        }
+        //shuffle the numbers
+        SplittableRandom random = new SplittableRandom(seed);
+        for(int i = 255; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int temp = p[i];
+            p[i] = p[j];
+            p[j] = temp;
+        }
+        for(int i = 0; i < 512; i++) {
+            permutation[i] = p[i & 255];
+            gradientIndex[i] = permutation[i] % 12;
+        }
+    }
+
+    public SimplexNoise(long seed) {
+        this(seed, 1);
+    }
+
+    //Getter
+    public long getSeed() {
+        return seed;
+    }
+
+    public double getScale() {
+        return scale;
+    }
+
+    @Override
+    public String getParameters() {
+        return "SimplexNoise seed=" + seed + " scale=" + scale;
+    }
+
+    @Override
+    public void getValuesAt(double[] x, double[] y, double[] z, double[] results, int count) {
+        for(int k = 0; k < count; k++) {
+            results[k] = getValueAt(x[k], y[k], z[k]);
+        }
+    }
+
+    //this function calculates and returns the noise value at the given coordinates
+    @Override
+    public double getValueAt(double x, double y, double z) {
+        x *= scale;
+        y *= scale;
+        z *= scale;
+        //find the cube in the skewed grid containing the point
+        double s = (x + y + z) * SKEW;
+        int i = fastFloor(x + s);
+        int j = fastFloor(y + s);
+        int k = fastFloor(z + s);
+        //the distances to the first corner, in the unskewed space
+        double t = (i + j + k) * UNSKEW;
+        double x0 = x - (i - t);
+        double y0 = y - (j - t);
+        double z0 = z - (k - t);
+        //find the tetrahedron of the cube containing the point by the order of the distances
+        //the second and third corner are given by their offsets from the first one
+        int i1, j1, k1;
+        int i2, j2, k2;
+        if(x0 >= y0) {
+            if(y0 >= z0) {
+                i1 = 1; j1 = 0; k1 = 0; i2 = 1; j2 = 1; k2 = 0;
+            } else if(x0 >= z0) {
+                i1 = 1; j1 = 0; k1 = 0; i2 = 1; j2 = 0; k2 = 1;
+            } else {
+                i1 = 0; j1 = 0; k1 = 1; i2 = 1; j2 = 0; k2 = 1;
+            }
+        } else {
+            if(y0 < z0) {
+                i1 = 0; j1 = 0; k1 = 1; i2 = 0; j2 = 1; k2 = 1;
+            } else if(x0 < z0) {
+                i1 = 0; j1 = 1; k1 = 0; i2 = 0; j2 = 1; k2 = 1;
+            } else {
+                i1 = 0; j1 = 1; k1 = 0; i2 = 1; j2 = 1; k2 = 0;
+            }
+        }
+        //the distances to the other three corners
+        double x1 = x0 - i1 + UNSKEW;
+        double y1 = y0 - j1 + UNSKEW;
+        double z1 = z0 - k1 + UNSKEW;
+        double x2 = x0 - i2 + 2 * UNSKEW;
+        double y2 = y0 - j2 + 2 * UNSKEW;
+        double z2 = z0 - k2 + 2 * UNSKEW;
+        double x3 = x0 - 1 + 3 * UNSKEW;
+        double y3 = y0 - 1 + 3 * UNSKEW;
+        double z3 = z0 - 1 + 3 * UNSKEW;
+        //hash the corners
+        int ii = i & 255;
+        int jj = j & 255;
+        int kk = k & 255;
+        int g0 = gradientIndex[ii + permutation[jj + permutation[kk]]];
+        int g1 = gradientIndex[ii + i1 + permutation[jj + j1 + permutation[kk + k1]]];
+        int g2 = gradientIndex[ii + i2 + permutation[jj + j2 + permutation[kk + k2]]];
+        int g3 = gradientIndex[ii + 1 + permutation[jj + 1 + permutation[kk + 1]]];
+        //add up the contributions of the corners, scaled to bring the result into [-1;1]
+        double n = contribution(g0, x0, y0, z0) + contribution(g1, x1, y1, z1)
+                + contribution(g2, x2, y2, z2) + contribution(g3, x3, y3, z3);
+        return (32 * n + 1) / 2;
+    }
+
+    //this function calculates the contribution of a corner, it decreases with the distance and is 0 outside of a radius
+    private double contribution(int g, double x, double y, double z) {
+        double t = 0.6 - x * x - y * y - z * z;
+        if(t < 0) {
+            return 0;
+        }
+        t *= t;
+        return t * t * (GRADIENT_X[g] * x + GRADIENT_Y[g] * y + GRADIENT_Z[g] * z);
+    }
+
+    //this function rounds down, faster than Math.floor
+    private static int fastFloor(double x) {
+        int xi = (int) x;
+        return x < xi ? xi - 1 : xi;
+    }
+}
@@ -0,0 +1,102 @@
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+public class SphereSamplingGrid {
+
+    //this class calculates the points on a sphere corresponding to the pixels of an equirectangular texture
+    //the longitude of a pixel only depends on its column and the latitude only on its row,
+    //so the sine and cosine of both are calculated once per column and row instead of once per pixel
+    //the grids are shared by all textures with the same size, radius and offset, they are never changed after creating them
+    //only the grids used last are kept, so creating textures of many different sizes does not fill the memory
+
+    //the number of grids kept
+    private static final int MAX_GRIDS = 16;
+    //the grids used last, ordered from the least to the most recently used, the least recently used one is removed
+    //when there are too many, all accesses are synchronized on the map
+    private static final Map<Key, SphereSamplingGrid> grids = new LinkedHashMap<>(MAX_GRIDS, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, SphereSamplingGrid> eldest) {
+            return size() > MAX_GRIDS;
+        }
+    };
+
+    //the parameters identifying a grid
+    private record Key(int width, int height, double radius, double offsetX, double offsetY, double offsetZ) {}
+
+    //the size of the texture in pixels
+    private int width;
+    private int height;
+    //radius * cos and radius * sin of the longitude of every column
+    private double[] columnCos;
+    private double[] columnSin;
+    //sin of the latitude angle of every row, measured from the pole
+    private double[] rowSin;
+    //the z coordinate of every row, including the offset
+    private double[] rowZ;
+    //the center of the sphere
+    private double offsetX;
+    private double offsetY;
+
+    //constructor, the points are calculated the same way as ImageGenerator and FileGenerator did for every pixel
+    private SphereSamplingGrid(int width, int height, double radius, double offsetX, double offsetY, double offsetZ) {
+        this.width = width;
+        this.height = height;
+        this.offsetX = offsetX;
+        this.offsetY = offsetY;
+        columnCos = new double[width];
+        columnSin = new double[width];
+        for(int i = 0; i < width; i++) {
+            double angleX = Math.toRadians(360 / (double) width * i);
+            columnCos[i] = radius * Math.cos(angleX);
+            columnSin[i] = radius * Math.sin(angleX);
+        }
+        rowSin = new double[height];
+        rowZ = new double[height];
+        for(int j = 0; j < height; j++) {
+            double angleY = Math.toRadians(180 / (double) height * j);
+            rowSin[j] = Math.sin(angleY);
+            rowZ[j] = radius * Math.cos(angleY) + offsetZ;
+        }
+    }
+
+    //this function returns the grid for a texture, it is only created if no grid with the same parameters is kept
+    public static SphereSamplingGrid get(int width, int height, double radius, double offsetX, double offsetY, double offsetZ) {
+        Key key = new Key(width, height, radius, offsetX, offsetY, offsetZ);
+        synchronized (grids) {
+            return grids.computeIfAbsent(key, k -> new SphereSamplingGrid(width, height, radius, offsetX, offsetY, offsetZ));
+        }
+    }
+
+    //this function writes the points of the pixels from start to end (exclusive) of row j into x, y and z,
+    //starting at index 0
+    public void getRow(int j, int start, int end, double[] x, double[] y, double[] z) {
+        double sin = rowSin[j];
+        double rowZ = this.rowZ[j];
+        for(int i = start; i < end; i++) {
+            x[i - start] = columnCos[i] * sin + offsetX;
+            y[i - start] = columnSin[i] * sin + offsetY;
+            z[i - start] = rowZ;
+        }
+    }
+
+    //Getter for the sine of the latitude angle of row j, which is also the length of its circle compared to the equator
+    public double getRowSin(int j) {
+        return rowSin[j];
+    }
+
+    //Getter for the z coordinate of row j
+    public double getRowZ(int j) {
+        return rowZ[j];
+    }
+
+    //Getter for the size of the texture
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+}
@@ -0,0 +1,133 @@
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+
+public class StreamingImageOutput implements AutoCloseable {
+
+    //this class writes an image to a png file while it is created
+    //the image is created in bands of rows, every finished band is handed to a separate thread that
+    //compresses and writes it, while the next band is created
+    //the compression of a band is split into blocks that run on the threads of the given pool
+    //only a fixed number of bands exists at any time, so the memory needed does not depend on the height of the image
+
+    //the height of the image in pixels
+    private int height;
+    //the pool used to compress the bands
+    private ForkJoinPool pool;
+    //the number of rows of a band
+    private int bandHeight;
+
+    //bands that can be filled
+    private BlockingQueue<PixelRaster> freeBands;
+    //filled bands waiting to be written
+    private BlockingQueue<PixelRaster> filledBands;
+    //a band without rows, used to tell the writer thread that all bands were submitted
+    private PixelRaster lastBand = new PixelRaster(0, 0);
+
+    //the thread writing the file and the first error it ran into
+    private Thread writerThread;
+    private volatile Exception error;
+
+    //constructor, creates the bands and starts writing the file
+    public StreamingImageOutput(File file, int width, int height, int bandHeight, int numberOfBands, ForkJoinPool pool) {
+        this.height = height;
+        this.pool = pool;
+        this.bandHeight = bandHeight;
+        this.freeBands = new ArrayBlockingQueue<>(numberOfBands);
+        this.filledBands = new ArrayBlockingQueue<>(numberOfBands + 1);
+        for (int i = 0; i < numberOfBands; i++) {
+            freeBands.add(new PixelRaster(width, bandHeight));
+        }
+        PngWriter writer;
+        try {
+            writer = new PngWriter(file, width, height);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        this.writerThread = new Thread(() -> writeBands(writer), "png writer " + file.getName());
+        writerThread.start();
+    }
+
+    //this function returns an empty band for the rows starting at firstRow
+    //if all bands are in use, it waits until the writer thread has written one of them
+    public PixelRaster nextBand(int firstRow) {
+        checkError();
+        try {
+            PixelRaster band = freeBands.take();
+            band.setFirstRow(firstRow);
+            return band;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    //this function hands a filled band to the writer thread, the rows have to be submitted in order
+    public void submitBand(PixelRaster band) {
+        checkError();
+        try {
+            filledBands.put(band);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    //this function waits until all submitted bands are written and closes the file
+    @Override
+    public void close() {
+        try {
+            filledBands.put(lastBand);
+            writerThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+        checkError();
+    }
+
+    //Getter for the number of rows of a band
+    public int getBandHeight() {
+        return bandHeight;
+    }
+
+    //this function is run by the writer thread, it writes the filled bands and gives them back to be filled again
+    //after an error the bands are still given back, so the thread creating the image does not wait forever
+    //the writer is always closed, if the image is not finished this deletes the file
+    private void writeBands(PngWriter writer) {
+        try {
+            PixelRaster band = filledBands.take();
+            while (band != lastBand) {
+                if (error == null) {
+                    try {
+                        writer.writeRows(band.getPixels(), 0, Math.min(band.getRows(), height - band.getFirstRow()), pool);
+                    } catch (Exception e) {
+                        error = e;
+                    }
+                }
+                freeBands.put(band);
+                band = filledBands.take();
+            }
+        } catch (Exception e) {
+            error = e;
+        } finally {
+            try {
+                writer.close();
+            } catch (Exception e) {
+                //after an earlier error closing fails because rows are missing, the earlier error is kept
+                if (error == null) {
+                    error = e;
+                }
+            }
+        }
+    }
+
+    //this function passes an error of the writer thread on to the thread creating the image
+    private void checkError() {
+        if (error != null) {
+            throw new RuntimeException(error);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+public class TextureCache {
+
+    //this class stores created textures, so a texture with the same parameters is not created again
+    //the textures are identified by a key calculated from all parameters used to create them
+    //they are stored as png files in a directory on disk, the most recently used ones are also kept in memory
+    //if the cache gets too large, the least recently used textures are removed
+    //if multiple threads request the same texture at the same time, it is only created once
+
+    //the directory the textures are stored in
+    private File directory;
+    //the maximum size of all textures on disk and in memory in bytes
+    private long maxDiskBytes;
+    private long maxMemoryBytes;
+
+    //the textures on disk and their sizes, ordered from least to most recently used
+    private LinkedHashMap<String, Long> diskEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private long diskBytes = 0;
+    //the textures in memory, ordered from least to most recently used
+    private LinkedHashMap<String, byte[]> memoryEntries = new LinkedHashMap<>(16, 0.75f, true);
+    private long memoryBytes = 0;
+    //the textures that are currently loaded or created, used to let other threads wait for them
+    private ConcurrentHashMap<String, CompletableFuture<byte[]>> pending = new ConcurrentHashMap<>();
+
+    //constructor, the textures already stored in the directory are added to the cache
+    //the time they were last used is taken from the time the file was last modified
+    public TextureCache(File directory, long maxDiskBytes, long maxMemoryBytes) {
+        this.directory = directory;
+        this.maxDiskBytes = maxDiskBytes;
+        this.maxMemoryBytes = maxMemoryBytes;
+        if(!directory.isDirectory() && !directory.mkdirs()) {
+            throw new RuntimeException("could not create the cache directory " + directory);
+        }
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(".png"));
+        if(files != null) {
+            Arrays.sort(files, Comparator.comparingLong(File::lastModified));
+            for(File file : files) {
+                String name = file.getName();
+                diskEntries.put(name.substring(0, name.length() - 4), file.length());
+                diskBytes += file.length();
+            }
+        }
+        evictFromDisk();
+    }
+
+    //this function calculates the key for a texture from all parameters used to create it
+    //the parameters are hashed using SHA-256, so the key can be used as a file name
+    public static String createKey(Object... parameters) {
+        StringBuilder description = new StringBuilder();
+        for(Object parameter : parameters) {
+            description.append(parameter).append('\n');
+        }
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(description.toString().getBytes(StandardCharsets.UTF_8));
+            StringBuilder key = new StringBuilder();
+            for(byte b : hash) {
+                key.append(Character.forDigit((b >> 4) & 0xF, 16)).append(Character.forDigit(b & 0xF, 16));
+            }
+            return key.toString();
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    //this function returns the content of the png file of the texture with the given key
+    //if the texture is not in the cache, generator is called to write it into the given file
+    public byte[] get(String key, Consumer<File> generator) {
+        byte[] data = getFromMemory(key);
+        if(data != null) {
+            return data;
+        }
+        CompletableFuture<byte[]> request = new CompletableFuture<>();
+        CompletableFuture<byte[]> existingRequest = pending.putIfAbsent(key, request);
+        //another thread is already loading or creating the texture, wait for it
+        if(existingRequest != null) {
+            try {
+                return existingRequest.join();
+            } catch (CompletionException e) {
+                if(e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+        try {
+            data = load(key, generator);
+            request.complete(data);
+            return data;
+        } catch (RuntimeException | Error e) {
+            request.completeExceptionally(e);
+            throw e;
+        } finally {
+            pending.remove(key, request);
+        }
+    }
+
+    //this function does the same as the function above, but writes the png file to target
+    public void get(String key, Consumer<File> generator, File target) {
+        try {
+            Files.write(target.toPath(), get(key, generator));
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    //this function returns the texture if it is kept in memory
+    private synchronized byte[] getFromMemory(String key) {
+        byte[] data = memoryEntries.get(key);
+        if(data != null) {
+            //also mark the file on disk as used
+            diskEntries.get(key);
+        }
+        return data;
+    }
+
+    //this function reads the texture from disk or creates it, if it is not stored on disk
+    private byte[] load(String key, Consumer<File> generator) {
+        //the texture could have been added to memory while this thread was waiting
+        byte[] data = getFromMemory(key);
+        if(data != null) {
+            return data;
+        }
+        File file = new File(directory, key + ".png");
+        try {
+            boolean stored;
+            synchronized (this) {
+                stored = diskEntries.get(key) != null;
+            }
+            if(stored) {
+                try {
+                    data = Files.readAllBytes(file.toPath());
+                    file.setLastModified(System.currentTimeMillis());
+                } catch (NoSuchFileException e) {
+                    //the file was removed in the meantime, so the texture is created again
+                    data = null;
+                }
+            }
+            if(data == null) {
+                //create the texture in a temporary file, so no incomplete textures are stored if creating it fails
+                File temporaryFile = File.createTempFile(key, ".tmp", directory);
+                try {
+                    generator.accept(temporaryFile);
+                    data = Files.readAllBytes(temporaryFile.toPath());
+                    Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+                } finally {
+                    Files.deleteIfExists(temporaryFile.toPath());
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        add(key, data);
+        return data;
+    }
+
+    //this function adds a texture to both parts of the cache and removes the least recently used ones if needed
+    private synchronized void add(String key, byte[] data) {
+        Long previousSize = diskEntries.put(key, (long) data.length);
+        diskBytes += data.length - (previousSize == null ? 0 : previousSize);
+        evictFromDisk();
+        //textures larger than the whole memory part are only stored on disk
+        if(data.length <= maxMemoryBytes) {
+            byte[] previousData = memoryEntries.put(key, data);
+            memoryBytes += data.length - (previousData == null ? 0 : previousData.length);
+            Iterator<Map.Entry<String, byte[]>> entries = memoryEntries.entrySet().iterator();
+            while(memoryBytes > maxMemoryBytes && entries.hasNext()) {
+                memoryBytes -= entries.next().getValue().length;
+                entries.remove();
+            }
+        }
+    }
+
+    //this function removes the least recently used textures from disk until the size limit is kept
+    //the most recently used texture is always kept
+    private void evictFromDisk() {
+        Iterator<Map.Entry<String, Long>> entries = diskEntries.entrySet().iterator();
+        while(diskBytes > maxDiskBytes && diskEntries.size() > 1 && entries.hasNext()) {
+            Map.Entry<String, Long> entry = entries.next();
+            diskBytes -= entry.getValue();
+            entries.remove();
+            new File(directory, entry.getKey() + ".png").delete();
+        }
+    }
+}
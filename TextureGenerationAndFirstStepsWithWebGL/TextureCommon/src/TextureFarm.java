@@ -0,0 +1,115 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Semaphore;
+import java.util.function.Function;
+
+public class TextureFarm {
+
+    //this class creates all textures listed in a manifest file
+    //every line of the manifest describes one texture, the format depends on the generator, see TextureJob of the generators
+    //empty lines and lines starting with # are ignored
+    //the textures are created on one shared pool, the tiles of every texture are split into tasks and threads without
+    //work steal tasks from any texture, so no thread waits while the last tiles of a texture are finished
+    //only as many textures as the pool has threads are created at the same time, the tiles provide enough tasks,
+    //so the memory needed does not depend on the number of textures in the manifest
+    //the time needed for every texture and the number of pixels created per second are printed
+
+    //the textures listed in the manifest
+    private List<TextureFarmJob> jobs = new ArrayList<>();
+    //the directory the textures are written to
+    private File outputDirectory;
+
+    //constructor, reads the manifest, every line is turned into a texture by parser
+    public TextureFarm(File manifest, File outputDirectory, Function<String, ? extends TextureFarmJob> parser) {
+        this.outputDirectory = outputDirectory;
+        try {
+            List<String> lines = Files.readAllLines(manifest.toPath());
+            for(int i = 0; i < lines.size(); i++) {
+                String line = lines.get(i).trim();
+                if(line.isEmpty() || line.startsWith("#")) {
+                    continue;
+                }
+                try {
+                    jobs.add(parser.apply(line));
+                } catch (RuntimeException e) {
+                    throw new IllegalArgumentException(manifest + " line " + (i + 1) + ": " + e.getMessage(), e);
+                }
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    //this function creates all textures using the threads of the pool and waits until they are finished
+    //if a texture can not be created, the error is printed and the other textures are still created
+    //returns the number of textures that could not be created
+    public int run(ForkJoinPool pool) {
+        if(!outputDirectory.isDirectory() && !outputDirectory.mkdirs()) {
+            throw new RuntimeException("could not create the output directory " + outputDirectory);
+        }
+        long start = System.nanoTime();
+        //start the textures, a new texture is only started when one of the textures in flight is finished
+        //the pool decides which tiles of the textures in flight are created next
+        Semaphore inFlight = new Semaphore(Math.max(1, pool.getParallelism()));
+        List<ForkJoinTask<?>> tasks = new ArrayList<>();
+        for(TextureFarmJob job : jobs) {
+            try {
+                inFlight.acquire();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new RuntimeException(e);
+            }
+            tasks.add(pool.submit(() -> {
+                try {
+                    long jobStart = System.nanoTime();
+                    job.render(new File(outputDirectory, job.getName() + ".png"), pool);
+                    printThroughput(job.getName(), job.getPixels(), System.nanoTime() - jobStart);
+                } finally {
+                    inFlight.release();
+                }
+            }));
+        }
+        //wait for all textures
+        int failed = 0;
+        long pixels = 0;
+        for(int i = 0; i < jobs.size(); i++) {
+            try {
+                tasks.get(i).join();
+                pixels += jobs.get(i).getPixels();
+            } catch (RuntimeException e) {
+                System.out.println("could not create " + jobs.get(i).getName() + ": " + e);
+                failed++;
+            }
+        }
+        printThroughput("all " + (jobs.size() - failed) + " textures", pixels, System.nanoTime() - start);
+        return failed;
+    }
+
+    //this function prints the time needed to create a number of pixels and the pixels created per second
+    private void printThroughput(String name, long pixels, long nanos) {
+        double seconds = nanos / 1e9;
+        System.out.println(String.format(Locale.ROOT, "%s: %d pixels in %.2f s, %.2f megapixels/s",
+                name, pixels, seconds, pixels / seconds / 1e6));
+    }
+
+    //this function is used to run the texture farm, parser turns the lines of the manifest into textures
+    //arguments: manifest file, output directory (default: current directory), number of threads (default: all cores)
+    public static void main(String[] args, Function<String, ? extends TextureFarmJob> parser) {
+        if(args.length < 1) {
+            System.out.println("usage: TextureFarm <manifest> [output directory] [threads]");
+            return;
+        }
+        File outputDirectory = new File(args.length > 1 ? args[1] : ".");
+        ForkJoinPool pool = args.length > 2 ? new ForkJoinPool(Integer.parseInt(args[2])) : ForkJoinPool.commonPool();
+        int failed = new TextureFarm(new File(args[0]), outputDirectory, parser).run(pool);
+        if(failed > 0) {
+            System.exit(1);
+        }
+    }
+}
@@ -0,0 +1,17 @@
+import java.io.File;
+import java.util.concurrent.ForkJoinPool;
+
+public interface TextureFarmJob {
+
+    //this interface is implemented by the textures listed in the manifest of the texture farm
+    //every generator has its own manifest format, the texture farm only needs to know how to create a texture
+
+    //this function returns the name of the texture, also used as file name
+    String getName();
+
+    //this function returns the number of pixels of the texture
+    long getPixels();
+
+    //this function creates the texture and writes it to file using the threads of the pool
+    void render(File file, ForkJoinPool pool);
+}
@@ -0,0 +1,52 @@
+import java.util.concurrent.RecursiveAction;
+
+public class TileRenderTask extends RecursiveAction {
+
+    //this class splits the image into tiles and renders them on a fork join pool
+    //every tile is rendered by exactly one thread, so the result does not depend on the number of threads
+
+    //the tasks are never serialized, the version is only set because RecursiveAction is serializable
+    private static final long serialVersionUID = 1L;
+
+    //the area of the image this task is responsible for, xEnd and yEnd are exclusive
+    private int xStart;
+    private int yStart;
+    private int xEnd;
+    private int yEnd;
+
+    //the maximum edge length of a tile, larger areas get split further
+    private int tileSize;
+
+    //the function used to fill a single tile
+    private TileRenderer renderer;
+
+    //constructor
+    public TileRenderTask(int xStart, int yStart, int xEnd, int yEnd, int tileSize, TileRenderer renderer) {
+        this.xStart = xStart;
+        this.yStart = yStart;
+        this.xEnd = xEnd;
+        this.yEnd = yEnd;
+        this.tileSize = tileSize;
+        this.renderer = renderer;
+    }
+
+    //this function either renders the tile or splits the area in half along its longer side
+    @Override
+    protected void compute() {
+        int width = xEnd - xStart;
+        int height = yEnd - yStart;
+        if (width <= tileSize && height <= tileSize) {
+            renderer.renderTile(xStart, yStart, xEnd, yEnd);
+            return;
+        }
+        if (width >= height) {
+            int xMid = xStart + width / 2;
+            invokeAll(new TileRenderTask(xStart, yStart, xMid, yEnd, tileSize, renderer),
+                    new TileRenderTask(xMid, yStart, xEnd, yEnd, tileSize, renderer));
+        } else {
+            int yMid = yStart + height / 2;
+            invokeAll(new TileRenderTask(xStart, yStart, xEnd, yMid, tileSize, renderer),
+                    new TileRenderTask(xStart, yMid, xEnd, yEnd, tileSize, renderer));
+        }
+    }
+}
@@ -0,0 +1,6 @@
+public interface TileRenderer {
+    //this interface is used by the tile render task to fill a rectangular part of the image
+    //xEnd and yEnd are exclusive
+
+    void renderTile(int xStart, int yStart, int xEnd, int yEnd);
+}
@@ -0,0 +1,37 @@
+public class VectorSupport {
+
+    //this class decides whether the noise functions use their kernels written with the vector api
+    //the vector api is the incubator module jdk.incubator.vector, it is only available if the program is started
+    //with --add-modules jdk.incubator.vector, otherwise the classes using it can not be loaded
+    //the kernels are only used by default if the system property textures.vector is true and the module is available,
+    //every noise function also has a scalar version with the same results, which is used otherwise
+
+    //the name of the module and of the system property
+    private static final String MODULE = "jdk.incubator.vector";
+    private static final String PROPERTY = "textures.vector";
+
+    //whether the module was added when starting the program
+    private static final boolean AVAILABLE = ModuleLayer.boot().findModule(MODULE).isPresent();
+    //whether the kernels are used by default
+    private static final boolean ENABLED = AVAILABLE && Boolean.getBoolean(PROPERTY);
+
+    //constructor, the class only has static functions
+    private VectorSupport() {}
+
+    //this function returns whether the vector api can be used
+    public static boolean isAvailable() {
+        return AVAILABLE;
+    }
+
+    //this function returns whether the noise functions use the kernels written with the vector api by default
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    //this function throws an exception if the vector api can not be used, called before switching a kernel on
+    public static void checkAvailable() {
+        if(!AVAILABLE) {
+            throw new UnsupportedOperationException("the vector api is not available, start the program with --add-modules " + MODULE);
+        }
+    }
+}